@@ -0,0 +1,6 @@
+package com.example.taskmanager;
+
+import java.util.List;
+
+public record BoardColumn(TaskStatus status, long total, List<Task> tasks, String nextCursor) {
+}
@@ -0,0 +1,8 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+public record BulkChangeRequest(List<Long> ids, TaskFilter filter, JsonNode set) {
+}
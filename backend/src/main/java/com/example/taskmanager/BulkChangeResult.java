@@ -0,0 +1,4 @@
+package com.example.taskmanager;
+
+public record BulkChangeResult(long updated) {
+}
@@ -0,0 +1,19 @@
+package com.example.taskmanager;
+
+public record BulkItemResult(int index, Long id, Outcome outcome, String error, String message) {
+
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        DELETED,
+        FAILED
+    }
+
+    static BulkItemResult succeeded(int index, Long id, Outcome outcome) {
+        return new BulkItemResult(index, id, outcome, null, null);
+    }
+
+    static BulkItemResult failed(int index, Long id, String error, String message) {
+        return new BulkItemResult(index, id, Outcome.FAILED, error, message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.taskmanager;
+
+public class BulkLimitExceededException extends RuntimeException {
+    public BulkLimitExceededException(int size, int limit) {
+        super("Bulk request has " + size + " items, limit is " + limit);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.taskmanager;
+
+import java.util.Comparator;
+import java.util.List;
+
+public record BulkResult(int succeeded, int failed, List<BulkItemResult> items) {
+
+    static BulkResult of(List<BulkItemResult> items) {
+        List<BulkItemResult> sorted = items.stream().sorted(Comparator.comparingInt(BulkItemResult::index)).toList();
+        int failed = (int) sorted.stream().filter(item -> item.outcome() == BulkItemResult.Outcome.FAILED).count();
+        return new BulkResult(sorted.size() - failed, failed, sorted);
+    }
+}
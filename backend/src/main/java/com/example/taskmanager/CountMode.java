@@ -0,0 +1,17 @@
+package com.example.taskmanager;
+
+public enum CountMode {
+    EXACT,
+    NONE,
+    ESTIMATE;
+
+    // Lenient like sortBy and direction: anything unrecognised counts exactly.
+    public static CountMode of(String value) {
+        for (CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        return EXACT;
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.taskmanager;
+
+public record ImportProgress(long processed, long imported, long failed, boolean done) {
+}
@@ -0,0 +1,4 @@
+package com.example.taskmanager;
+
+public record ImportRowError(long row, String error, String message) {
+}
@@ -0,0 +1,7 @@
+package com.example.taskmanager;
+
+public class InvalidFieldsException extends RuntimeException {
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskmanager;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(Long id, long currentVersion) {
+        super("Task " + id + " has changed, current version is " + currentVersion);
+    }
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
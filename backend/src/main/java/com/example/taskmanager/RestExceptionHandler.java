@@ -1,5 +1,8 @@
 package com.example.taskmanager;
 
+import com.example.taskmanager.security.AdmissionRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -20,6 +23,72 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursor(InvalidCursorException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "INVALID_CURSOR");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidFields(InvalidFieldsException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "INVALID_FIELDS");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    @ExceptionHandler(SyncExpiredException.class)
+    public ResponseEntity<Map<String, Object>> handleSyncExpired(SyncExpiredException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "RESYNC_REQUIRED");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GONE).body(body);
+    }
+
+    @ExceptionHandler(BulkLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleBulkLimit(BulkLimitExceededException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "BULK_LIMIT");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidPatch(InvalidPatchException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "INVALID_PATCH");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.badRequest().body(body);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionFailed(PreconditionFailedException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "PRECONDITION_FAILED");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(body);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(OptimisticLockingFailureException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "CONFLICT");
+        body.put("message", "Task was modified concurrently, reload it and retry");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleAdmissionRejected(AdmissionRejectedException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "RATE_LIMITED");
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+            .body(body);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -0,0 +1,6 @@
+package com.example.taskmanager;
+
+import jakarta.validation.constraints.NotNull;
+
+public record StatusUpdate(@NotNull TaskStatus status) {
+}
@@ -0,0 +1,40 @@
+package com.example.taskmanager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Position in the (change_seq, id) order of the change log. Deletes at or below floor happened before a full sync
+// started, so that client never held those tasks and needs no tombstones for them.
+public record SyncCursor(long seq, long id, long floor) {
+
+    public static SyncCursor fullSync(long head) {
+        return new SyncCursor(0, 0, head);
+    }
+
+    public static SyncCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3) {
+                throw new InvalidCursorException("Malformed sync cursor");
+            }
+            return new SyncCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Malformed sync cursor");
+        }
+    }
+
+    public SyncCursor after(long seq, long id) {
+        return new SyncCursor(seq, id, floor);
+    }
+
+    // Oldest change_seq whose tombstones the client still needs.
+    public long horizon() {
+        return Math.max(seq, floor);
+    }
+
+    public String encode() {
+        String raw = seq + "|" + id + "|" + floor;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.taskmanager;
+
+public class SyncExpiredException extends RuntimeException {
+    public SyncExpiredException() {
+        super("Tombstones for this cursor have been compacted; start a full sync without a cursor");
+    }
+}
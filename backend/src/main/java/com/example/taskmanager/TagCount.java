@@ -0,0 +1,7 @@
+package com.example.taskmanager;
+
+public interface TagCount {
+    String getTag();
+
+    long getCount();
+}
@@ -1,19 +1,30 @@
 package com.example.taskmanager;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Min;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Entity
+@DynamicUpdate
 @Table(name = "tasks")
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -41,6 +52,13 @@ public class Task {
     @Column(length = 255)
     private String tags;
 
+    @JsonIgnore
+    @ElementCollection
+    @BatchSize(size = 50)
+    @CollectionTable(name = "task_tags", joinColumns = @JoinColumn(name = "task_id"))
+    @Column(name = "tag", nullable = false)
+    private Set<String> tagSet = new LinkedHashSet<>();
+
     @Min(0)
     private Integer estimateHours;
 
@@ -55,6 +73,11 @@ public class Task {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     private void onCreate() {
         LocalDateTime now = LocalDateTime.now();
@@ -121,6 +144,20 @@ public class Task {
 
     public void setTags(String tags) {
         this.tags = tags;
+        Set<String> parsed = parseTags(tags);
+        this.tagSet.retainAll(parsed);
+        this.tagSet.addAll(parsed);
+    }
+
+    public static Set<String> parseTags(String tags) {
+        if (tags == null) {
+            return Set.of();
+        }
+        return Arrays.stream(tags.split(","))
+            .map(String::trim)
+            .filter(tag -> !tag.isEmpty())
+            .map(tag -> tag.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     public Integer getEstimateHours() {
@@ -162,4 +199,12 @@ public class Task {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
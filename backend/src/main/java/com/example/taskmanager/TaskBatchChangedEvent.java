@@ -0,0 +1,8 @@
+package com.example.taskmanager;
+
+import java.util.List;
+import java.util.Map;
+
+// Published for each chunk of a set-based update; the tasks themselves are never loaded.
+public record TaskBatchChangedEvent(List<Long> ids, Map<String, Object> changes) {
+}
@@ -0,0 +1,122 @@
+package com.example.taskmanager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Tasks are cached by id and evicted when a write to them commits: at once for this instance's writes, and within
+// app.cache.by-id.sync-interval for other instances', which a poll of the shared change_seq counter finds. Pages are
+// keyed by a write version that only this instance's commits bump: they can be stale on other instances until the
+// TTL expires, so multi-instance profiles turn them off. Entries from older versions are never hit again and age out.
+@Component
+public class TaskCache {
+
+    private static final int SYNC_LIMIT = 1000;
+
+    private final AtomicLong writeVersion = new AtomicLong();
+    // Bumped on every eviction, so a load that raced with one is not cached.
+    private final AtomicLong generation = new AtomicLong();
+    private final TaskChangeLog changeLog;
+    private final boolean enabled;
+    private final boolean pagesEnabled;
+    private final Cache<Long, Task> byId;
+    private final Cache<Key, TaskPage<?>> pages;
+    private long syncedSeq = -1;
+
+    public TaskCache(
+        MeterRegistry registry,
+        TaskChangeLog changeLog,
+        @Value("${app.cache.enabled:true}") boolean enabled,
+        @Value("${app.cache.pages.enabled:true}") boolean pagesEnabled,
+        @Value("${app.cache.by-id.max-size:10000}") long byIdSize,
+        @Value("${app.cache.by-id.ttl:PT5M}") Duration byIdTtl,
+        @Value("${app.cache.pages.max-size:1000}") long pagesSize,
+        @Value("${app.cache.pages.ttl:PT30S}") Duration pagesTtl
+    ) {
+        this.changeLog = changeLog;
+        this.enabled = enabled;
+        this.pagesEnabled = enabled && pagesEnabled;
+        this.byId = Caffeine.newBuilder().maximumSize(byIdSize).expireAfterWrite(byIdTtl).recordStats().build();
+        this.pages = Caffeine.newBuilder().maximumSize(pagesSize).expireAfterWrite(pagesTtl).recordStats().build();
+        CaffeineCacheMetrics.monitor(registry, byId, "tasks.byId");
+        CaffeineCacheMetrics.monitor(registry, pages, "tasks.pages");
+    }
+
+    public Task task(Long id, Supplier<Task> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Task cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        Task loaded = loader.get();
+        if (generation.get() == loadedAt) {
+            byId.put(id, loaded);
+        }
+        return loaded;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> TaskPage<T> page(PageKey pageKey, Supplier<TaskPage<T>> loader) {
+        return pagesEnabled ? (TaskPage<T>) pages.get(new Key(writeVersion.get(), pageKey), key -> loader.get()) : loader.get();
+    }
+
+    // Runs after the search index and before the change feed, so a new version only serves fully updated reads and a
+    // client reacting to a change event never re-reads an entry from before it.
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        writeVersion.incrementAndGet();
+        generation.incrementAndGet();
+        byId.invalidate(event.task().getId());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksChanged(TaskBatchChangedEvent event) {
+        writeVersion.incrementAndGet();
+        generation.incrementAndGet();
+        byId.invalidateAll(event.ids());
+    }
+
+    // One single-row read while nothing changed. change_seq is taken in commit order, so every id up to the head read
+    // here is already committed; a write that commits later has a higher seq and is found by the next poll.
+    @Scheduled(fixedDelayString = "${app.cache.by-id.sync-interval:PT1S}")
+    public synchronized void sync() {
+        if (!enabled) {
+            return;
+        }
+        long head = changeLog.head();
+        if (head == syncedSeq) {
+            return;
+        }
+        List<Long> changed = syncedSeq < 0 ? null : changeLog.changedIds(syncedSeq, head, SYNC_LIMIT);
+        generation.incrementAndGet();
+        if (changed == null || changed.size() > SYNC_LIMIT) {
+            byId.invalidateAll();
+        } else {
+            byId.invalidateAll(changed);
+        }
+        syncedSeq = head;
+    }
+
+    public record PageKey(TaskFilter filter, String sort, int page, int size, List<String> fields, CountMode count) {
+    }
+
+    private record Key(long version, Object key) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.taskmanager;
+
+public record TaskChange(Type type, Long id, Long version) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    // Folds a later change to the same task into this one, or returns null when the two cancel out.
+    TaskChange then(TaskChange later) {
+        if (type == Type.CREATED && later.type == Type.DELETED) {
+            return null;
+        }
+        if (type == Type.CREATED) {
+            return new TaskChange(Type.CREATED, id, later.version);
+        }
+        return later;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.taskmanager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Every write transaction takes the next change_seq just before it commits and stamps it on the rows it touched
+// (or on tombstones for rows it deleted). The counter row stays locked until commit, so sequence order is commit
+// order and a reader that has seen seq N can never later find an uncommitted N - 1 appearing behind its cursor.
+@Component
+public class TaskChangeLog {
+
+    private static final int STAMP_CHUNK = 1000;
+    private static final int PURGE_BATCH = 1000;
+
+    // Each branch is one tight range on a (change_seq, id) index. "change_seq >= next" rather than "> seq" because
+    // H2 starts a strict range at the bound and walks every row equal to it, which after a bulk write can be many.
+    private static final String CHANGES_SQL = """
+        (SELECT id, change_seq, FALSE AS deleted FROM tasks WHERE change_seq = :seq AND id > :id
+         ORDER BY change_seq, id FETCH FIRST :limit ROWS ONLY)
+        UNION ALL
+        (SELECT id, change_seq, FALSE FROM tasks WHERE change_seq >= :next
+         ORDER BY change_seq, id FETCH FIRST :limit ROWS ONLY)
+        UNION ALL
+        (SELECT task_id, change_seq, TRUE FROM task_tombstones WHERE change_seq = :seq AND task_id > :id AND change_seq > :floor
+         ORDER BY change_seq, task_id FETCH FIRST :limit ROWS ONLY)
+        UNION ALL
+        (SELECT task_id, change_seq, TRUE FROM task_tombstones WHERE change_seq >= :tombstonesFrom
+         ORDER BY change_seq, task_id FETCH FIRST :limit ROWS ONLY)
+        ORDER BY 2, 1 FETCH FIRST :limit ROWS ONLY
+        """;
+
+    private static final String CHANGED_IDS_SQL = """
+        (SELECT id FROM tasks WHERE change_seq >= :next AND change_seq <= :upTo FETCH FIRST :limit ROWS ONLY)
+        UNION ALL
+        (SELECT task_id FROM task_tombstones WHERE change_seq >= :next AND change_seq <= :upTo FETCH FIRST :limit ROWS ONLY)
+        FETCH FIRST :limit ROWS ONLY
+        """;
+
+    private final NamedParameterJdbcTemplate named;
+    private final JdbcTemplate jdbc;
+    private final TaskRepository repository;
+    private final Duration retention;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TaskChangeLog(
+        NamedParameterJdbcTemplate named,
+        TaskRepository repository,
+        @Value("${app.sync.tombstone-retention:P7D}") Duration retention
+    ) {
+        this.named = named;
+        this.jdbc = named.getJdbcTemplate();
+        this.repository = repository;
+        this.retention = retention;
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        Pending pending = pending();
+        if (pending == null) {
+            return;
+        }
+        Long id = event.task().getId();
+        if (event.type() == TaskChangedEvent.Type.DELETED) {
+            pending.changed.remove(id);
+            pending.deleted.add(id);
+        } else {
+            pending.changed.add(id);
+        }
+    }
+
+    @EventListener
+    public void onTasksChanged(TaskBatchChangedEvent event) {
+        Pending pending = pending();
+        if (pending != null) {
+            pending.changed.addAll(event.ids());
+        }
+    }
+
+    // Rows are read in (change_seq, id) order from both tables; only the changed tasks are then loaded in full.
+    public TaskDelta changesSince(String cursor, int limit) {
+        SyncCursor from = cursor == null || cursor.isBlank() ? SyncCursor.fullSync(head()) : SyncCursor.decode(cursor);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("seq", from.seq())
+            .addValue("id", from.id())
+            .addValue("next", from.seq() + 1)
+            .addValue("floor", from.floor())
+            .addValue("tombstonesFrom", from.horizon() + 1)
+            .addValue("limit", limit + 1);
+        List<Row> rows = named.query(CHANGES_SQL, params,
+            (rs, i) -> new Row(rs.getLong(1), rs.getLong(2), rs.getBoolean(3)));
+        // Checked after the read: compaction raises purged_seq before it deletes anything.
+        if (from.horizon() < purgedSeq()) {
+            throw new SyncExpiredException();
+        }
+        boolean hasMore = rows.size() > limit;
+        List<Row> page = hasMore ? rows.subList(0, limit) : rows;
+
+        List<Long> changedIds = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (Row row : page) {
+            (row.deleted() ? deleted : changedIds).add(row.id());
+        }
+        Map<Long, Task> loaded = new HashMap<>();
+        repository.findAllById(changedIds).forEach(task -> loaded.put(task.getId(), task));
+        // A task deleted since the first query is skipped here; its tombstone sorts after this cursor.
+        List<Task> tasks = changedIds.stream().map(loaded::get).filter(task -> task != null).toList();
+
+        SyncCursor next = page.isEmpty() ? from : from.after(page.get(page.size() - 1).seq(), page.get(page.size() - 1).id());
+        return new TaskDelta(tasks, deleted, next.encode(), hasMore);
+    }
+
+    // Tombstones past the retention window go in small batches. purged_seq is raised first, so a client whose
+    // cursor predates it is told to resync instead of silently missing deletes.
+    @Scheduled(fixedDelayString = "${app.sync.compact-interval:PT10M}")
+    public int compact() {
+        OffsetDateTime cutoff = OffsetDateTime.now(ZoneOffset.UTC).minus(retention);
+        Long horizon = jdbc.queryForObject(
+            "SELECT MAX(change_seq) FROM task_tombstones WHERE deleted_at <= ?", Long.class, cutoff);
+        if (horizon == null) {
+            return 0;
+        }
+        jdbc.update("UPDATE task_sync_state SET purged_seq = ? WHERE id = 1 AND purged_seq < ?", horizon, horizon);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbc.update("""
+                DELETE FROM task_tombstones WHERE task_id IN (
+                  SELECT task_id FROM task_tombstones WHERE change_seq <= ? FETCH FIRST %d ROWS ONLY
+                )""".formatted(PURGE_BATCH), horizon);
+            total += deleted;
+        } while (deleted == PURGE_BATCH);
+        return total;
+    }
+
+    public long head() {
+        return jdbc.queryForObject("SELECT change_seq FROM task_sync_state WHERE id = 1", Long.class);
+    }
+
+    // Tasks written or deleted by transactions that took a change_seq in (after, upTo], whichever instance made them.
+    // At most limit + 1 ids, so the caller can tell the list was cut off.
+    public List<Long> changedIds(long after, long upTo, int limit) {
+        return named.queryForList(CHANGED_IDS_SQL, new MapSqlParameterSource()
+            .addValue("next", after + 1)
+            .addValue("upTo", upTo)
+            .addValue("limit", limit + 1), Long.class);
+    }
+
+    private long purgedSeq() {
+        return jdbc.queryForObject("SELECT purged_seq FROM task_sync_state WHERE id = 1", Long.class);
+    }
+
+    // Writes always run in a service transaction; anything outside one has nothing to stamp against.
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private void stamp(Pending pending) {
+        if (pending.changed.isEmpty() && pending.deleted.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        jdbc.update("UPDATE task_sync_state SET change_seq = change_seq + 1 WHERE id = 1");
+        long seq = head();
+        List<Long> changed = new ArrayList<>(pending.changed);
+        for (int from = 0; from < changed.size(); from += STAMP_CHUNK) {
+            named.update("UPDATE tasks SET change_seq = :seq WHERE id IN (:ids)", new MapSqlParameterSource()
+                .addValue("seq", seq)
+                .addValue("ids", changed.subList(from, Math.min(from + STAMP_CHUNK, changed.size()))));
+        }
+        if (!pending.deleted.isEmpty()) {
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            List<Object[]> tombstones = pending.deleted.stream().map(id -> new Object[] {id, seq, now}).toList();
+            jdbc.batchUpdate("INSERT INTO task_tombstones (task_id, change_seq, deleted_at) VALUES (?, ?, ?)", tombstones);
+        }
+    }
+
+    private record Row(long id, long seq, boolean deleted) {
+    }
+
+    private final class Pending implements TransactionSynchronization {
+        private final Set<Long> changed = new LinkedHashSet<>();
+        private final Set<Long> deleted = new LinkedHashSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            stamp(this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TaskChangeLog.this);
+        }
+    }
+}
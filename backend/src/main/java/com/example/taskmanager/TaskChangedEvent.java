@@ -0,0 +1,11 @@
+package com.example.taskmanager;
+
+public record TaskChangedEvent(Type type, Task task) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+}
@@ -1,49 +1,161 @@
 package com.example.taskmanager;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDate;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final TaskService service;
+    private final TaskDataCodec codec;
+    private final TaskImporter importer;
+    private final TaskEventStream eventStream;
+    private final TaskChangeLog changeLog;
+    private final TaskStatistics statistics;
 
-    public TaskController(TaskService service) {
+    public TaskController(
+        TaskService service,
+        TaskDataCodec codec,
+        TaskImporter importer,
+        TaskEventStream eventStream,
+        TaskChangeLog changeLog,
+        TaskStatistics statistics
+    ) {
         this.service = service;
+        this.codec = codec;
+        this.importer = importer;
+        this.eventStream = eventStream;
+        this.changeLog = changeLog;
+        this.statistics = statistics;
     }
 
     @GetMapping
-    public Page<Task> getAll(
-        @RequestParam(required = false) TaskStatus status,
-        @RequestParam(required = false) TaskPriority priority,
-        @RequestParam(defaultValue = "false") Boolean archived,
-        @RequestParam(required = false, name = "q") String query,
-        @RequestParam(required = false)
-        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-        LocalDate dueDateFrom,
-        @RequestParam(required = false)
-        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-        LocalDate dueDateTo,
+    public Slice<?> getAll(
+        @ParameterObject TaskFilter filter,
         @RequestParam(defaultValue = "createdAt") String sortBy,
         @RequestParam(defaultValue = "desc") String direction,
         @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size,
+        @RequestParam(required = false) String fields,
+        @RequestParam(required = false) String view,
+        @RequestParam(name = "count", defaultValue = "exact") String countMode,
+        WebRequest request,
+        HttpServletResponse response
+    ) {
+        TaskProjection projection = TaskProjection.of(fields, view);
+        CountMode count = CountMode.of(countMode);
+        if (notModified(request, () -> listTag(service.getChangeSeq(), request))) {
+            return null;
+        }
+        TaskPage<?> result = projection == null
+            ? service.getPage(filter, sortBy, direction, Math.max(page, 0), safeSize(size), count)
+            : service.getPage(filter, sortBy, direction, Math.max(page, 0), safeSize(size), count, projection);
+        revalidate(response, listTag(result.changeSeq(), request));
+        return result.content();
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorPage<Task> getAllByCursor(
+        @ParameterObject TaskFilter filter,
+        @RequestParam(defaultValue = "createdAt") String sortBy,
+        @RequestParam(defaultValue = "desc") String direction,
+        @RequestParam String cursor,
         @RequestParam(defaultValue = "20") int size
     ) {
-        int safeSize = Math.min(Math.max(size, 1), 100);
-        int safePage = Math.max(page, 0);
-        return service.getAll(status, priority, archived, query, dueDateFrom, dueDateTo, sortBy, direction, safePage, safeSize);
+        return service.getAllByCursor(filter, sortBy, direction, cursor, safeSize(size));
+    }
+
+    @GetMapping("/board")
+    public List<BoardColumn> getBoard(
+        @ParameterObject TaskFilter filter,
+        @RequestParam(defaultValue = "createdAt") String sortBy,
+        @RequestParam(defaultValue = "desc") String direction,
+        @RequestParam(defaultValue = "20") int perColumn
+    ) {
+        return service.getBoard(filter, sortBy, direction, safeSize(perColumn));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+        @ParameterObject TaskFilter filter,
+        @RequestParam(defaultValue = "createdAt") String sortBy,
+        @RequestParam(defaultValue = "desc") String direction,
+        @RequestParam(defaultValue = "NDJSON") TaskDataFormat format
+    ) {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = codec.writer(format, out)) {
+                service.forEach(filter, sortBy, direction, task -> codec.write(writer, task));
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(format.mediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + format.extension() + "\"")
+            .body(body);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<StreamingResponseBody> importTasks(
+        @RequestParam(defaultValue = "NDJSON") TaskDataFormat format,
+        HttpServletRequest request
+    ) {
+        StreamingResponseBody body = out -> importer.importTasks(format, request.getInputStream(), out);
+        return ResponseEntity.ok()
+            .contentType(TaskDataFormat.NDJSON.mediaType())
+            .body(body);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return eventStream.subscribe(lastEventId);
+    }
+
+    @GetMapping("/changes")
+    public TaskDelta changes(@RequestParam(required = false) String since, @RequestParam(defaultValue = "500") int limit) {
+        return changeLog.changesSince(since, Math.min(Math.max(limit, 1), 1000));
+    }
+
+    @GetMapping("/stats")
+    public TaskStats stats() {
+        return statistics.snapshot();
+    }
+
+    @GetMapping("/tags")
+    public List<TagCount> getTags(@RequestParam(defaultValue = "50") int limit) {
+        return service.getTagCounts(Math.min(Math.max(limit, 1), 500));
     }
 
     @GetMapping("/{id}")
-    public Task getById(@PathVariable Long id) {
-        return service.getById(id);
+    public Task getById(@PathVariable Long id, WebRequest request, HttpServletResponse response) {
+        // A cache hit answers the precondition too, without a query: the ETag is the version of the body served.
+        Task task = service.getById(id);
+        if (notModified(request, () -> versionTag(task.getVersion()))) {
+            return null;
+        }
+        revalidate(response, versionTag(task.getVersion()));
+        return task;
     }
 
     @PostMapping
@@ -52,14 +164,101 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping("/bulk")
+    public BulkResult createAll(@RequestBody List<Task> tasks) {
+        return service.createAll(tasks);
+    }
+
+    @PutMapping("/bulk")
+    public BulkResult updateAll(@RequestBody List<Task> tasks) {
+        return service.updateAll(tasks);
+    }
+
+    @DeleteMapping("/bulk")
+    public BulkResult deleteAll(@RequestBody List<Long> ids) {
+        return service.deleteAll(ids);
+    }
+
     @PutMapping("/{id}")
     public Task update(@PathVariable Long id, @Valid @RequestBody Task task) {
         return service.update(id, task);
     }
 
+    @PatchMapping("/bulk")
+    public BulkChangeResult changeAll(@RequestBody BulkChangeRequest request) {
+        return service.changeAll(request);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Task> patch(
+        @PathVariable Long id,
+        @RequestBody JsonNode patch,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        Task patched = service.patch(id, patch, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(versionTag(patched.getVersion())).body(patched);
+    }
+
+    @PutMapping("/{id}/status")
+    public ResponseEntity<Void> updateStatus(
+        @PathVariable Long id,
+        @Valid @RequestBody StatusUpdate update,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        long version = service.updateStatus(id, update.status(), expectedVersion(ifMatch));
+        return ResponseEntity.noContent().eTag(versionTag(version)).build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    // The If-None-Match check reads the current state without loading rows; the ETag sent with a body always comes
+    // from the same (possibly cached) read as the body itself.
+    private boolean notModified(WebRequest request, Supplier<String> currentEtag) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(currentEtag.get());
+    }
+
+    // The change_seq head covers every committed write on any instance, so revalidating a list in any count mode is a
+    // single-row read. Any write makes every list's tag stale, matching or not. The parameters are part of the tag so a
+    // tag is never valid for a list it did not come from.
+    private static String listTag(long changeSeq, WebRequest request) {
+        StringBuilder parameters = new StringBuilder();
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) ->
+            parameters.append(name).append('=').append(String.join(",", values)).append('&'));
+        String digest = DigestUtils.md5DigestAsHex(parameters.toString().getBytes(StandardCharsets.UTF_8));
+        return "\"" + Long.toString(changeSeq, 36) + "." + digest.substring(0, 16) + "\"";
+    }
+
+    // Replaces the default no-store header so browsers keep the body and send If-None-Match on the next request.
+    private void revalidate(HttpServletResponse response, String etag) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+    }
+
+    // Accepts a single strong ETag as returned by this controller; "*" matches any existing task.
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // falls through to the rejection below
+            }
+        }
+        throw new PreconditionFailedException("If-Match must be a single task ETag, got " + tag);
+    }
+
+    private static String versionTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private int safeSize(int size) {
+        return Math.min(Math.max(size, 1), 100);
+    }
 }
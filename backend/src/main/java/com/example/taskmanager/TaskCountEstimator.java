@@ -0,0 +1,105 @@
+package com.example.taskmanager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Totals for count=estimate. A filter seen before gets its last exact count, recounted in the background once it is
+// older than the refresh interval. A new filter gets the planner's row estimate for the whole table while its first
+// count runs, so no request ever waits on count(*).
+@Component
+public class TaskCountEstimator {
+
+    private final JdbcTemplate jdbc;
+    private final Cache<TaskFilter, Estimate> counts;
+    private final long refreshNanos;
+    private final Set<TaskFilter> refreshing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor counter;
+    private volatile String tableEstimateSql;
+
+    public TaskCountEstimator(
+        JdbcTemplate jdbc,
+        @Value("${app.count.estimate.max-filters:1000}") long maxFilters,
+        @Value("${app.count.estimate.refresh:PT30S}") Duration refresh,
+        @Value("${app.count.estimate.expire:PT10M}") Duration expire
+    ) {
+        this.jdbc = jdbc;
+        this.counts = Caffeine.newBuilder().maximumSize(maxFilters).expireAfterAccess(expire).build();
+        this.refreshNanos = refresh.toNanos();
+        // One thread with a short queue: recounts never pile up on the database, extra requests are dropped.
+        this.counter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(64), task -> {
+            Thread thread = new Thread(task, "task-count-estimator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public long estimate(TaskFilter filter, LongSupplier exactCount) {
+        Estimate cached = counts.getIfPresent(filter);
+        if (cached == null) {
+            recount(filter, exactCount);
+            return tableEstimate();
+        }
+        if (System.nanoTime() - cached.countedAt() > refreshNanos) {
+            recount(filter, exactCount);
+        }
+        return cached.count();
+    }
+
+    @PreDestroy
+    public void close() {
+        counter.shutdownNow();
+    }
+
+    private void recount(TaskFilter filter, LongSupplier exactCount) {
+        if (!refreshing.add(filter)) {
+            return;
+        }
+        try {
+            counter.execute(() -> {
+                try {
+                    counts.put(filter, new Estimate(exactCount.getAsLong(), System.nanoTime()));
+                } finally {
+                    refreshing.remove(filter);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            refreshing.remove(filter);
+        }
+    }
+
+    // pg_class.reltuples as of the last ANALYZE (-1 before the first one), or H2's own row count estimate.
+    private long tableEstimate() {
+        if (tableEstimateSql == null) {
+            String product = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            tableEstimateSql = switch (product) {
+                case "PostgreSQL" -> "SELECT reltuples::bigint FROM pg_class WHERE oid = 'tasks'::regclass";
+                case "H2" -> "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES "
+                    + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'TASKS'";
+                default -> "";
+            };
+        }
+        if (tableEstimateSql.isEmpty()) {
+            return 0;
+        }
+        List<Long> rows = jdbc.queryForList(tableEstimateSql, Long.class);
+        return rows.isEmpty() || rows.get(0) == null ? 0 : Math.max(rows.get(0), 0);
+    }
+
+    private record Estimate(long count, long countedAt) {
+    }
+}
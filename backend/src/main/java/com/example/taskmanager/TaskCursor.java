@@ -0,0 +1,69 @@
+package com.example.taskmanager;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public record TaskCursor(String property, Sort.Direction direction, Object value, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static TaskCursor after(Task task, Sort.Order order) {
+        return new TaskCursor(order.getProperty(), order.getDirection(), valueOf(task, order.getProperty()), task.getId());
+    }
+
+    public static TaskCursor decode(String token, Sort.Order order) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            parts = raw.split("\\|", 4);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (parts.length != 4) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (!parts[0].equals(order.getProperty()) || !parts[1].equals(order.getDirection().name())) {
+            throw new InvalidCursorException("Cursor does not match the requested sort");
+        }
+        try {
+            long id = Long.parseLong(parts[2]);
+            Object value = parts[3].isEmpty() ? null : parseValue(order.getProperty(), parts[3].substring(1));
+            return new TaskCursor(order.getProperty(), order.getDirection(), value, id);
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    public String encode() {
+        String encodedValue = value == null ? "" : "=" + (value instanceof Enum<?> e ? e.name() : value.toString());
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + encodedValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Object valueOf(Task task, String property) {
+        return switch (property) {
+            case "createdAt" -> task.getCreatedAt();
+            case "dueDate" -> task.getDueDate();
+            case "priority" -> task.getPriority();
+            case "status" -> task.getStatus();
+            case "title" -> task.getTitle();
+            case "assignee" -> task.getAssignee();
+            default -> throw new IllegalArgumentException("Unsupported sort property: " + property);
+        };
+    }
+
+    private static Object parseValue(String property, String raw) {
+        return switch (property) {
+            case "createdAt" -> LocalDateTime.parse(raw);
+            case "dueDate" -> LocalDate.parse(raw);
+            case "priority" -> TaskPriority.valueOf(raw);
+            case "status" -> TaskStatus.valueOf(raw);
+            case "title", "assignee" -> raw;
+            default -> throw new IllegalArgumentException("Unsupported sort property: " + property);
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@Component
+public class TaskDataCodec {
+
+    static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+        .addColumn("id")
+        .addColumn("title")
+        .addColumn("description")
+        .addColumn("status")
+        .addColumn("priority")
+        .addColumn("assignee")
+        .addColumn("tags")
+        .addColumn("estimateHours")
+        .addColumn("archived")
+        .addColumn("dueDate")
+        .addColumn("createdAt")
+        .addColumn("updatedAt")
+        .setUseHeader(true)
+        .build();
+
+    private final ObjectMapper jsonMapper;
+    private final CsvMapper csvMapper;
+
+    public TaskDataCodec(ObjectMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+        this.csvMapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+    }
+
+    public MappingIterator<Task> reader(TaskDataFormat format, InputStream in) throws IOException {
+        ObjectReader reader = switch (format) {
+            case NDJSON -> jsonMapper.readerFor(Task.class);
+            case CSV -> csvMapper.readerFor(Task.class).with(CsvSchema.emptySchema().withHeader());
+        };
+        return reader.readValues(in);
+    }
+
+    public SequenceWriter writer(TaskDataFormat format, OutputStream out) throws IOException {
+        ObjectWriter writer = switch (format) {
+            case NDJSON -> jsonMapper.writerFor(Task.class).withRootValueSeparator("\n");
+            case CSV -> csvMapper.writerFor(Task.class).with(CSV_SCHEMA).with(JsonGenerator.Feature.IGNORE_UNKNOWN);
+        };
+        return writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE).writeValues(out);
+    }
+
+    public void write(SequenceWriter writer, Task task) {
+        try {
+            writer.write(task);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.taskmanager;
+
+import java.util.List;
+
+public record TaskDelta(List<Task> tasks, List<Long> deleted, String cursor, boolean hasMore) {
+}
@@ -0,0 +1,307 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.security.AdmissionRejectedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Committed changes go into one shared ring buffer; a subscriber is just a position in it, so idle connections cost
+// no thread and no per-subscriber queue. A small sender pool delivers everything since a subscriber's position as one
+// coalesced batch. A subscriber that falls more than a ring's length behind is told to resync instead, and one whose
+// send outlasts the send timeout is dropped so a client that stops reading cannot hold a sender.
+@Component
+public class TaskEventStream {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger slots = new AtomicInteger();
+    private final TaskChange[] ring;
+    // Positions restart at 0 with the process, so event ids carry this process's epoch and an id from another process
+    // (before a restart, or on another instance) is never mistaken for a position in this ring.
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private long head;
+    private final ExecutorService senders;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final long sendTimeoutNanos;
+    private final Counter resyncs;
+    private final Counter evictions;
+    private final ObjectMapper objectMapper;
+    private volatile Rendered rendered;
+
+    public TaskEventStream(
+        MeterRegistry registry,
+        ObjectMapper objectMapper,
+        @Value("${app.events.buffer-size:4096}") int bufferSize,
+        @Value("${app.events.max-subscribers:10000}") int maxSubscribers,
+        @Value("${app.events.sender-threads:2}") int senderThreads,
+        @Value("${app.events.timeout:PT30M}") Duration timeout,
+        @Value("${app.events.send-timeout:PT10S}") Duration sendTimeout
+    ) {
+        this.objectMapper = objectMapper;
+        this.ring = new TaskChange[bufferSize];
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        AtomicInteger counter = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), task -> {
+                Thread thread = new Thread(task, "task-events-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.resyncs = Counter.builder("task.events.resyncs")
+            .description("Change feed subscribers told to reload because they fell behind")
+            .register(registry);
+        this.evictions = Counter.builder("task.events.evictions")
+            .description("Change feed subscribers dropped because a send outlasted the send timeout")
+            .register(registry);
+        registry.gauge("task.events.subscribers", subscribers, Set::size);
+    }
+
+    // Resumes from Last-Event-ID when it was issued by this process and is still in the ring; otherwise the first
+    // message is a resync.
+    public SseEmitter subscribe(String lastEventId) {
+        // The slot is taken before anything else, so concurrent subscribes cannot all pass the check.
+        if (slots.incrementAndGet() > maxSubscribers) {
+            slots.decrementAndGet();
+            throw new AdmissionRejectedException("Too many change feed subscribers", 5);
+        }
+        SseEmitter emitter = newEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, resumePosition(lastEventId));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> remove(subscriber));
+        schedule(subscriber, () -> {
+            emitter.send(SseEmitter.event().comment("connected"));
+            drain(subscriber);
+        });
+        return emitter;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskChange.Type type = switch (event.type()) {
+            case CREATED -> TaskChange.Type.CREATED;
+            case UPDATED, STATUS_CHANGED -> TaskChange.Type.UPDATED;
+            case DELETED -> TaskChange.Type.DELETED;
+        };
+        append(List.of(new TaskChange(type, event.task().getId(), event.task().getVersion())));
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasksChanged(TaskBatchChangedEvent event) {
+        append(event.ids().stream().map(id -> new TaskChange(TaskChange.Type.UPDATED, id, null)).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.flush-interval:PT0.2S}")
+    public void flush() {
+        long current = head();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.position < current) {
+                schedule(subscriber, () -> drain(subscriber));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.heartbeat:PT25S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            schedule(subscriber, () -> subscriber.emitter.send(SseEmitter.event().comment("keepalive")));
+        }
+    }
+
+    // A send blocks while the client's socket buffer is full. Completing the emitter with an error makes the container
+    // close the connection, which fails the blocked write and frees the sender.
+    @Scheduled(fixedDelayString = "${app.events.send-check-interval:PT1S}")
+    public void evictStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            Thread sender = subscriber.sender;
+            if (sender != null && now - subscriber.sendStarted > sendTimeoutNanos && remove(subscriber)) {
+                evictions.increment();
+                subscriber.emitter.completeWithError(new IOException("Change feed subscriber stopped reading"));
+                sender.interrupt();
+            }
+        }
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @PreDestroy
+    public void close() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+        slots.decrementAndGet();
+        return true;
+    }
+
+    private synchronized void append(List<TaskChange> changes) {
+        for (TaskChange change : changes) {
+            ring[(int) (head % ring.length)] = change;
+            head++;
+        }
+    }
+
+    private synchronized long head() {
+        return head;
+    }
+
+    // Copies the changes after position, or returns null if they have already been overwritten.
+    private synchronized List<TaskChange> since(long position) {
+        if (head - position > ring.length || position > head) {
+            return null;
+        }
+        List<TaskChange> changes = new ArrayList<>((int) (head - position));
+        for (long seq = position; seq < head; seq++) {
+            changes.add(ring[(int) (seq % ring.length)]);
+        }
+        return changes;
+    }
+
+    private long resumePosition(String lastEventId) {
+        long current = head();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return current;
+        }
+        String[] id = lastEventId.trim().split(":", 2);
+        if (id.length != 2 || !id[0].equals(epoch)) {
+            return -1;
+        }
+        try {
+            long position = Long.parseLong(id[1]);
+            return position >= 0 && position <= current ? position : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private void drain(Subscriber subscriber) throws IOException {
+        long until = head();
+        if (subscriber.position >= until) {
+            return;
+        }
+        List<TaskChange> changes = subscriber.position < 0 ? null : since(subscriber.position);
+        if (changes == null) {
+            until = head();
+            subscriber.emitter.send(SseEmitter.event().id(eventId(until)).name("resync").data(Map.of()));
+            resyncs.increment();
+        } else {
+            until = subscriber.position + changes.size();
+            subscriber.emitter.send(SseEmitter.event()
+                .id(eventId(until))
+                .name("changes")
+                .data(render(subscriber.position, until, changes), MediaType.APPLICATION_JSON));
+        }
+        subscriber.position = until;
+    }
+
+    private String eventId(long position) {
+        return epoch + ":" + position;
+    }
+
+    // Subscribers that are caught up all receive the same range, so the JSON is rendered once per range.
+    private String render(long from, long until, List<TaskChange> changes) throws IOException {
+        Rendered last = rendered;
+        if (last != null && last.from == from && last.until == until) {
+            return last.json;
+        }
+        String json = objectMapper.writeValueAsString(coalesce(changes));
+        rendered = new Rendered(from, until, json);
+        return json;
+    }
+
+    private List<TaskChange> coalesce(List<TaskChange> changes) {
+        Map<Long, TaskChange> byTask = new LinkedHashMap<>();
+        for (TaskChange change : changes) {
+            TaskChange earlier = byTask.remove(change.id());
+            TaskChange merged = earlier == null ? change : earlier.then(change);
+            if (merged != null) {
+                byTask.put(change.id(), merged);
+            }
+        }
+        return new ArrayList<>(byTask.values());
+    }
+
+    // At most one send per subscriber is queued or running, so a stalled connection occupies one sender at most
+    // and its backlog turns into a resync rather than a growing queue.
+    private void schedule(Subscriber subscriber, Send send) {
+        if (!subscriber.busy.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> {
+                subscriber.sendStarted = System.nanoTime();
+                subscriber.sender = Thread.currentThread();
+                try {
+                    send.run();
+                } catch (IOException | IllegalStateException ex) {
+                    // The connection is gone; the container completes the request itself.
+                    remove(subscriber);
+                } finally {
+                    subscriber.sender = null;
+                    subscriber.busy.set(false);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            subscriber.busy.set(false);
+        }
+    }
+
+    private record Rendered(long from, long until, String json) {
+    }
+
+    @FunctionalInterface
+    private interface Send {
+        void run() throws IOException;
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private volatile long position;
+        private volatile long sendStarted;
+        private volatile Thread sender;
+
+        private Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+    }
+}
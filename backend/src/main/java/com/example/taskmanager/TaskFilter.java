@@ -0,0 +1,34 @@
+package com.example.taskmanager;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record TaskFilter(
+    TaskStatus status,
+    TaskPriority priority,
+    Boolean archived,
+    String q,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    LocalDate dueDateFrom,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    LocalDate dueDateTo,
+    List<String> tag,
+    TagMatch tagMatch
+) {
+
+    public enum TagMatch {
+        ANY,
+        ALL
+    }
+
+    public TaskFilter {
+        if (archived == null) {
+            archived = false;
+        }
+        if (tagMatch == null) {
+            tagMatch = TagMatch.ANY;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class TaskImporter {
+
+    private final TaskService service;
+    private final TaskDataCodec codec;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public TaskImporter(
+        TaskService service,
+        TaskDataCodec codec,
+        ObjectMapper objectMapper,
+        @Value("${app.import.batch-size:500}") int batchSize
+    ) {
+        this.service = service;
+        this.codec = codec;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    // Reads one batch at a time and commits it before reading on, so the request body is consumed only as fast as
+    // the database accepts rows. Progress and row errors are written to the response as they happen.
+    public ImportProgress importTasks(TaskDataFormat format, InputStream in, OutputStream out) throws IOException {
+        try (SequenceWriter report = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .writeValues(out);
+             MappingIterator<Task> rows = codec.reader(format, in)) {
+            List<Task> batch = new ArrayList<>(batchSize);
+            List<Long> rowNumbers = new ArrayList<>(batchSize);
+            long row = 0;
+            long imported = 0;
+            long failed = 0;
+            while (true) {
+                Task task;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row++;
+                    task = rows.nextValue();
+                } catch (StreamReadException ex) {
+                    failed++;
+                    report.write(new ImportRowError(row, "MALFORMED", ex.getOriginalMessage()));
+                    break;
+                } catch (JsonProcessingException ex) {
+                    failed++;
+                    report.write(new ImportRowError(row, "UNREADABLE", ex.getOriginalMessage()));
+                    continue;
+                }
+                batch.add(task);
+                rowNumbers.add(row);
+                if (batch.size() == batchSize) {
+                    BulkResult result = writeBatch(batch, rowNumbers, report);
+                    imported += result.succeeded();
+                    failed += result.failed();
+                    report.write(new ImportProgress(row, imported, failed, false));
+                    report.flush();
+                }
+            }
+            BulkResult result = writeBatch(batch, rowNumbers, report);
+            ImportProgress summary = new ImportProgress(row, imported + result.succeeded(), failed + result.failed(), true);
+            report.write(summary);
+            return summary;
+        }
+    }
+
+    private BulkResult writeBatch(List<Task> batch, List<Long> rowNumbers, SequenceWriter report) throws IOException {
+        BulkResult result = service.createAll(batch);
+        for (BulkItemResult item : result.items()) {
+            if (item.outcome() == BulkItemResult.Outcome.FAILED) {
+                report.write(new ImportRowError(rowNumbers.get(item.index()), item.error(), item.message()));
+            }
+        }
+        batch.clear();
+        rowNumbers.clear();
+        return result;
+    }
+}
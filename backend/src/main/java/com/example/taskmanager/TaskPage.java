@@ -0,0 +1,7 @@
+package com.example.taskmanager;
+
+import org.springframework.data.domain.Slice;
+
+// changeSeq is the change_seq head read before the rows, so no write it does not cover is missing from the page.
+public record TaskPage<T>(Slice<T> content, long changeSeq) {
+}
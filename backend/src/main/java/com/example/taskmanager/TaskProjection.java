@@ -0,0 +1,68 @@
+package com.example.taskmanager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The columns a list response carries. Only these are selected and serialized; id is always first.
+public record TaskProjection(List<String> fields) {
+
+    private static final List<String> ALL = List.of(
+        "id", "title", "description", "status", "priority", "assignee", "tags",
+        "estimateHours", "archived", "dueDate", "createdAt", "updatedAt", "version");
+    private static final TaskProjection SUMMARY =
+        new TaskProjection(List.of("id", "title", "status", "priority", "assignee", "dueDate", "archived", "version"));
+
+    // Null means the full entity.
+    public static TaskProjection of(String fields, String view) {
+        if (fields != null && !fields.isBlank()) {
+            List<String> selected = new ArrayList<>(List.of("id"));
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (!ALL.contains(name)) {
+                    throw new InvalidFieldsException("Unknown field: " + name);
+                }
+                if (!selected.contains(name)) {
+                    selected.add(name);
+                }
+            }
+            return new TaskProjection(List.copyOf(selected));
+        }
+        if (view == null || view.isBlank() || view.equals("full")) {
+            return null;
+        }
+        if (view.equals("summary")) {
+            return SUMMARY;
+        }
+        throw new InvalidFieldsException("Unknown view: " + view);
+    }
+
+    // For pages that come back as entities, such as relevance-ranked search results.
+    public Map<String, Object> row(Task task) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, valueOf(task, field));
+        }
+        return row;
+    }
+
+    private static Object valueOf(Task task, String field) {
+        return switch (field) {
+            case "id" -> task.getId();
+            case "title" -> task.getTitle();
+            case "description" -> task.getDescription();
+            case "status" -> task.getStatus();
+            case "priority" -> task.getPriority();
+            case "assignee" -> task.getAssignee();
+            case "tags" -> task.getTags();
+            case "estimateHours" -> task.getEstimateHours();
+            case "archived" -> task.getArchived();
+            case "dueDate" -> task.getDueDate();
+            case "createdAt" -> task.getCreatedAt();
+            case "updatedAt" -> task.getUpdatedAt();
+            case "version" -> task.getVersion();
+            default -> throw new IllegalArgumentException("Unsupported field: " + field);
+        };
+    }
+}
@@ -3,13 +3,22 @@ package com.example.taskmanager;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.Optional;
 
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
     List<Task> findByStatus(TaskStatus status, Sort sort);
 
     List<Task> findByPriority(TaskPriority priority, Sort sort);
 
     List<Task> findByStatusAndPriority(TaskStatus status, TaskPriority priority, Sort sort);
+
+    @Query("SELECT t.version FROM Task t WHERE t.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query(value = "SELECT tag AS tag, COUNT(*) AS count FROM task_tags GROUP BY tag ORDER BY COUNT(*) DESC, tag LIMIT :limit",
+        nativeQuery = true)
+    List<TagCount> countTags(int limit);
 }
@@ -0,0 +1,39 @@
+package com.example.taskmanager;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface TaskRepositoryCustom {
+    List<Task> findAfter(Specification<Task> spec, List<String> pinned, Sort.Order order, TaskCursor after, int limit);
+
+    List<Long> findIds(Specification<Task> spec);
+
+    List<Long> findIds(Specification<Task> spec, Long afterId, int limit);
+
+    int updateAll(Collection<Long> ids, Map<String, Object> changes, LocalDateTime now);
+
+    Optional<StatusChange> updateStatus(Long id, TaskStatus status, Long expectedVersion, LocalDateTime now);
+
+    List<Task> findPage(Specification<Task> spec, Pageable pageable, int limit);
+
+    List<Map<String, Object>> findPage(Specification<Task> spec, Pageable pageable, int limit, List<String> fields);
+
+    long scan(Specification<Task> spec, List<String> pinned, Sort.Order order, Consumer<Task> action);
+
+    List<BoardRow> findBoard(Specification<Task> spec, Sort.Order order, int perColumn);
+
+    record BoardRow(Task task, long columnTotal) {
+    }
+
+    // The task's state before the update and its version after it.
+    record StatusChange(TaskStatistics.Snapshot before, long version) {
+    }
+}
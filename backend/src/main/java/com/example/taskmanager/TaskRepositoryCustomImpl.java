@@ -0,0 +1,293 @@
+package com.example.taskmanager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaDerivedJoin;
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.hibernate.query.criteria.JpaWindow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final Set<String> NULLABLE = Set.of("dueDate", "assignee");
+    private static final int SCAN_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbc;
+    private volatile String updateStatusSql;
+
+    TaskRepositoryCustomImpl(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public List<Task> findAfter(Specification<Task> spec, List<String> pinned, Sort.Order order, TaskCursor after, int limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> cq = cb.createQuery(Task.class);
+        Root<Task> root = cq.from(Task.class);
+
+        List<Predicate> where = new ArrayList<>();
+        Predicate filter = spec.toPredicate(root, cq, cb);
+        if (filter != null) {
+            where.add(filter);
+        }
+        if (after != null) {
+            where.add(keyset(cb, root, order, after));
+        }
+        cq.where(where.toArray(Predicate[]::new));
+        cq.orderBy(listOrder(cb, root, pinned, order));
+
+        return entityManager.createQuery(cq)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Task> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Task> root = cq.from(Task.class);
+        Predicate filter = spec.toPredicate(root, cq, cb);
+        cq.select(root.get("id"));
+        if (filter != null) {
+            cq.where(filter);
+        }
+        return entityManager.createQuery(cq).getResultList();
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Task> spec, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Task> root = cq.from(Task.class);
+        List<Predicate> where = new ArrayList<>();
+        Predicate filter = spec.toPredicate(root, cq, cb);
+        if (filter != null) {
+            where.add(filter);
+        }
+        if (afterId != null) {
+            where.add(cb.greaterThan(root.get("id"), afterId));
+        }
+        cq.select(root.get("id")).where(where.toArray(Predicate[]::new)).orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    // Bulk UPDATEs skip entity callbacks and version handling, so updatedAt and version are set here.
+    @Override
+    public int updateAll(Collection<Long> ids, Map<String, Object> changes, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> root = update.from(Task.class);
+        changes.forEach((attribute, value) -> update.set(root.get(attribute), value));
+        update.set(root.<LocalDateTime>get("updatedAt"), now);
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        update.where(root.get("id").in(ids));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    // One statement that both changes the row and returns what it replaced: H2 selects from the UPDATE's OLD TABLE,
+    // Postgres joins the row to itself and returns the joined copy. On Postgres that join is also a compare-and-set:
+    // if another transaction changed the row first, the re-checked row no longer matches its own snapshot and the
+    // UPDATE matches nothing, so an empty result means "missing, stale or raced", never a wrong old state.
+    @Override
+    public Optional<StatusChange> updateStatus(Long id, TaskStatus status, Long expectedVersion, LocalDateTime now) {
+        if (updateStatusSql == null) {
+            String product = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            updateStatusSql = switch (product) {
+                case "PostgreSQL" -> """
+                    UPDATE tasks t SET status = ?, updated_at = ?, version = t.version + 1
+                    FROM tasks o WHERE t.id = ? AND o.id = t.id AND o.version = t.version
+                    AND t.version = COALESCE(CAST(? AS BIGINT), t.version)
+                    RETURNING o.status, o.priority, o.assignee, o.archived, o.due_date, o.estimate_hours, t.version""";
+                default -> """
+                    SELECT status, priority, assignee, archived, due_date, estimate_hours, version + 1 AS version
+                    FROM OLD TABLE (UPDATE tasks SET status = ?, updated_at = ?, version = version + 1
+                    WHERE id = ? AND version = COALESCE(CAST(? AS BIGINT), version))""";
+            };
+        }
+        List<StatusChange> rows = jdbc.query(updateStatusSql,
+            (rs, row) -> new StatusChange(TaskStatistics.Snapshot.of(rs), rs.getLong("version")),
+            status.name(), now, id, expectedVersion);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public List<Task> findPage(Specification<Task> spec, Pageable pageable, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> cq = cb.createQuery(Task.class);
+        Root<Task> root = cq.from(Task.class);
+        Predicate filter = spec.toPredicate(root, cq, cb);
+        if (filter != null) {
+            cq.where(filter);
+        }
+        cq.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        return entityManager.createQuery(cq)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    // A tuple query over just the requested columns; rows come back in the order the fields were asked for.
+    @Override
+    public List<Map<String, Object>> findPage(Specification<Task> spec, Pageable pageable, int limit, List<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Task> root = cq.from(Task.class);
+        Predicate filter = spec.toPredicate(root, cq, cb);
+        cq.multiselect(fields.stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList());
+        if (filter != null) {
+            cq.where(filter);
+        }
+        cq.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        List<Tuple> tuples = entityManager.createQuery(cq)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(limit)
+            .getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public long scan(Specification<Task> spec, List<String> pinned, Sort.Order order, Consumer<Task> action) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> cq = cb.createQuery(Task.class);
+        Root<Task> root = cq.from(Task.class);
+        Predicate filter = spec.toPredicate(root, cq, cb);
+        if (filter != null) {
+            cq.where(filter);
+        }
+        cq.orderBy(listOrder(cb, root, pinned, order));
+
+        Query<Task> query = entityManager.createQuery(cq).unwrap(Query.class)
+            .setFetchSize(SCAN_FETCH_SIZE)
+            .setReadOnly(true)
+            .setCacheMode(CacheMode.IGNORE);
+        long count = 0;
+        try (ScrollableResults<Task> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                action.accept(rows.get());
+                if (++count % SCAN_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    // One statement for the whole board: the filtered rows are numbered within their status in the list's sort order
+    // and counted per status, and only the first perColumn of each are joined back to their tasks.
+    @Override
+    public List<BoardRow> findBoard(Specification<Task> spec, Sort.Order order, int perColumn) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        JpaCriteriaQuery<Tuple> cq = cb.createTupleQuery();
+
+        JpaSubQuery<Tuple> ranked = cq.subquery(Tuple.class);
+        Root<Task> candidate = ranked.from(Task.class);
+        Path<Object> status = candidate.get("status");
+        JpaWindow columnOrder = cb.createWindow()
+            .partitionBy(status)
+            .orderBy(keyOrder(cb, candidate, order),
+                order.isAscending() ? cb.asc(candidate.get("id")) : cb.desc(candidate.get("id")));
+        ranked.multiselect(
+            candidate.get("id").alias("id"),
+            cb.rowNumber(columnOrder).alias("position"),
+            cb.count(candidate.get("id"), cb.createWindow().partitionBy(status)).alias("total"));
+        Predicate filter = spec.toPredicate(candidate, cq, cb);
+        if (filter != null) {
+            ranked.where(filter);
+        }
+
+        JpaRoot<Task> root = cq.from(Task.class);
+        JpaDerivedJoin<Tuple> rank = root.join(ranked);
+        rank.on(cb.equal(rank.get("id"), root.get("id")));
+        Path<Long> position = rank.get("position");
+        Path<Long> total = rank.get("total");
+        cq.multiselect(root, total)
+            .where(cb.le(position, perColumn))
+            .orderBy(cb.asc(root.get("status")), cb.asc(position));
+
+        return entityManager.createQuery(cq).getResultList().stream()
+            .map(row -> new BoardRow(row.get(0, Task.class), row.get(1, Long.class)))
+            .toList();
+    }
+
+    // The columns the filter pins to one value, then the key with id as the tiebreak; see TaskService.pinnedColumns.
+    private List<Order> listOrder(HibernateCriteriaBuilder cb, Root<Task> root, List<String> pinned, Sort.Order order) {
+        List<Order> orders = new ArrayList<>(pinned.size() + 2);
+        pinned.forEach(column -> orders.add(cb.asc(root.get(column))));
+        orders.add(keyOrder(cb, root, order));
+        orders.add(order.isAscending() ? cb.asc(root.get("id")) : cb.desc(root.get("id")));
+        return orders;
+    }
+
+    // Nulls sort as the largest value in both directions, which is what a plain B-tree index yields on Postgres.
+    private Order keyOrder(HibernateCriteriaBuilder cb, Root<Task> root, Sort.Order order) {
+        Path<Object> key = root.get(order.getProperty());
+        if (!NULLABLE.contains(order.getProperty())) {
+            return order.isAscending() ? cb.asc(key) : cb.desc(key);
+        }
+        return order.isAscending() ? cb.asc(key, false) : cb.desc(key, true);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Predicate keyset(HibernateCriteriaBuilder cb, Root<Task> root, Sort.Order order, TaskCursor after) {
+        boolean asc = order.isAscending();
+        Path<Comparable> key = root.get(order.getProperty());
+        Path<Long> id = root.get("id");
+        Predicate idBeyond = asc ? cb.greaterThan(id, after.id()) : cb.lessThan(id, after.id());
+
+        if (after.value() == null) {
+            Predicate sameKey = cb.and(cb.isNull(key), idBeyond);
+            return asc ? sameKey : cb.or(sameKey, cb.isNotNull(key));
+        }
+
+        Comparable value = (Comparable) after.value();
+        Predicate bound = asc ? cb.greaterThanOrEqualTo(key, value) : cb.lessThanOrEqualTo(key, value);
+        Predicate beyond = asc ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+        Predicate next = cb.and(bound, cb.or(beyond, idBeyond));
+        if (asc && NULLABLE.contains(order.getProperty())) {
+            return cb.or(next, cb.isNull(key));
+        }
+        return next;
+    }
+}
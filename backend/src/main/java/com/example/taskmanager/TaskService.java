@@ -1,58 +1,461 @@
 package com.example.taskmanager;
 
+import com.example.taskmanager.search.SearchQuery;
+import com.example.taskmanager.search.TaskSearchIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.time.LocalDate;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
 
+    private static final String RELEVANCE = "relevance";
+    private static final int BULK_CHUNK = 500;
+    private static final Set<String> PATCHABLE =
+        Set.of("title", "description", "status", "priority", "assignee", "tags", "estimateHours", "archived", "dueDate");
+    private static final Set<String> NOT_NULL = Set.of("status", "priority", "archived");
+    private static final Map<String, Class<?>> BULK_CHANGEABLE =
+        Map.of("status", TaskStatus.class, "priority", TaskPriority.class, "assignee", String.class, "archived", Boolean.class);
+    private static final int CHANGE_CHUNK = 1000;
+
     private final TaskRepository repository;
+    private final TaskSearchIndex searchIndex;
+    private final TaskQueries queries;
+    private final ApplicationEventPublisher events;
+    private final TaskCache cache;
+    private final TaskChangeLog changeLog;
+    private final TaskCountEstimator countEstimator;
+    private final TaskStatistics statistics;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final int bulkLimit;
 
-    public TaskService(TaskRepository repository) {
+    public TaskService(
+        TaskRepository repository,
+        TaskSearchIndex searchIndex,
+        TaskQueries queries,
+        ApplicationEventPublisher events,
+        TaskCache cache,
+        TaskChangeLog changeLog,
+        TaskCountEstimator countEstimator,
+        TaskStatistics statistics,
+        EntityManager entityManager,
+        Validator validator,
+        ObjectMapper objectMapper,
+        MeterRegistry registry,
+        @Value("${app.bulk.max-items:5000}") int bulkLimit
+    ) {
         this.repository = repository;
+        this.searchIndex = searchIndex;
+        this.queries = queries;
+        this.events = events;
+        this.cache = cache;
+        this.changeLog = changeLog;
+        this.countEstimator = countEstimator;
+        this.statistics = statistics;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.bulkLimit = bulkLimit;
+    }
+
+    // Exact pages always carry a total, so the slice is a Page.
+    public Page<Task> getAll(TaskFilter filter, String sortBy, String direction, int page, int size) {
+        return (Page<Task>) getPage(filter, sortBy, direction, page, size, CountMode.EXACT).content();
+    }
+
+    public TaskPage<Task> getPage(TaskFilter filter, String sortBy, String direction, int page, int size, CountMode count) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return loadPage(filter, sortBy, direction, page, size, count, null, repository::findPage, Function.identity());
+        } finally {
+            sample.stop(listTimer(filter, sortBy, count));
+        }
     }
 
-    public Page<Task> getAll(
-        TaskStatus status,
-        TaskPriority priority,
-        Boolean archived,
-        String query,
-        LocalDate dueDateFrom,
-        LocalDate dueDateTo,
-        String sortBy,
-        String direction,
-        int page,
-        int size
+    // Only the projected columns are selected; relevance pages come from the search index as entities and are
+    // projected in memory.
+    public TaskPage<Map<String, Object>> getPage(
+        TaskFilter filter, String sortBy, String direction, int page, int size, CountMode count, TaskProjection projection
     ) {
-        Sort sort = buildSort(sortBy, direction);
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            return loadPage(filter, sortBy, direction, page, size, count, projection.fields(),
+                (spec, pageable, limit) -> repository.findPage(spec, pageable, limit, projection.fields()), projection::row);
+        } finally {
+            sample.stop(listTimer(filter, sortBy, count));
+        }
+    }
+
+    // Tags name which filters were set, never their values: at most 7 sorts x 32 filter sets x 3 count modes.
+    private Timer listTimer(TaskFilter filter, String sortBy, CountMode count) {
+        List<String> used = new ArrayList<>(5);
+        if (filter.status() != null) {
+            used.add("status");
+        }
+        if (filter.priority() != null) {
+            used.add("priority");
+        }
+        if (TaskQueries.hasQuery(filter)) {
+            used.add("q");
+        }
+        if (filter.tag() != null && !filter.tag().isEmpty()) {
+            used.add("tag");
+        }
+        if (filter.dueDateFrom() != null || filter.dueDateTo() != null) {
+            used.add("due");
+        }
+        String sort = TaskQueries.SORTABLE.contains(sortBy) ? sortBy : "createdAt";
+        if (RELEVANCE.equals(sortBy) && TaskQueries.hasQuery(filter)) {
+            sort = RELEVANCE;
+        }
+        return Timer.builder("tasks.list")
+            .description("Task list pages, including cache hits")
+            .tag("sort", sort)
+            .tag("filters", used.isEmpty() ? "none" : String.join("+", used))
+            .tag("count", count.name().toLowerCase())
+            .register(registry);
+    }
+
+    // The change_seq head is read before the rows, so the page is never older than the head it is cached and served
+    // with. EXACT counts the matching rows; NONE skips that and reads one extra row to learn whether another page
+    // follows; ESTIMATE is a NONE page with an estimated total.
+    private <T> TaskPage<T> loadPage(
+        TaskFilter filter, String sortBy, String direction, int page, int size, CountMode count, List<String> fields,
+        RowLoader<T> rows, Function<Task, T> fromEntity
+    ) {
+        if (count == CountMode.ESTIMATE) {
+            TaskPage<T> slice = loadPage(filter, sortBy, direction, page, size, CountMode.NONE, fields, rows, fromEntity);
+            // Relevance pages are counted by the search index anyway.
+            return slice.content() instanceof Page<T> ? slice : withEstimate(filter, slice);
+        }
+        if (RELEVANCE.equals(sortBy) && TaskQueries.hasQuery(filter)) {
+            return cache.page(new TaskCache.PageKey(filter, RELEVANCE, page, size, fields, count), () -> {
+                long changeSeq = changeLog.head();
+                Specification<Task> spec = queries.buildSpec(filter);
+                Page<Task> ranked = searchIndex.search(spec, SearchQuery.parse(filter.q()), PageRequest.of(page, size));
+                return new TaskPage<>(ranked.map(fromEntity), changeSeq);
+            });
+        }
+        Sort sort = queries.buildSort(filter, sortBy, direction);
         Pageable pageable = PageRequest.of(page, size, sort);
-        Specification<Task> spec = buildSpec(status, priority, archived, query, dueDateFrom, dueDateTo);
-        return repository.findAll(spec, pageable);
+        return cache.page(new TaskCache.PageKey(filter, sort.toString(), page, size, fields, count), () -> {
+            long changeSeq = changeLog.head();
+            Specification<Task> spec = queries.buildSpec(filter);
+            if (count == CountMode.EXACT) {
+                long total = repository.count(spec);
+                List<T> content = total > pageable.getOffset() ? rows.load(spec, pageable, size) : List.of();
+                return new TaskPage<>(new PageImpl<>(content, pageable, total), changeSeq);
+            }
+            List<T> fetched = rows.load(spec, pageable, size + 1);
+            boolean hasNext = fetched.size() > size;
+            List<T> content = hasNext ? new ArrayList<>(fetched.subList(0, size)) : fetched;
+            return new TaskPage<>(new SliceImpl<>(content, pageable, hasNext), changeSeq);
+        });
+    }
+
+    // Applied outside the page cache, so a finished recount shows up without waiting for the next write. The estimate
+    // is only used where the page cannot tell: once the last row has been read the total is known.
+    private <T> TaskPage<T> withEstimate(TaskFilter filter, TaskPage<T> page) {
+        Slice<T> slice = page.content();
+        long offset = slice.getPageable().getOffset();
+        long estimate = countEstimator.estimate(filter, () -> repository.count(queries.buildSpec(filter)));
+        long total = slice.hasNext() ? Math.max(estimate, offset + slice.getSize() + 1)
+            : slice.hasContent() ? offset + slice.getNumberOfElements() : Math.min(estimate, offset);
+        return new TaskPage<>(new PageImpl<>(slice.getContent(), slice.getPageable(), total), page.changeSeq());
+    }
+
+    // Moves with every committed write on any instance; one single-row read.
+    public long getChangeSeq() {
+        return changeLog.head();
+    }
+
+    public CursorPage<Task> getAllByCursor(TaskFilter filter, String sortBy, String direction, String cursor, int size) {
+        Sort.Order order = queries.buildOrder(sortBy, direction);
+        TaskCursor after = cursor == null || cursor.isBlank() ? null : TaskCursor.decode(cursor, order);
+        List<Task> rows = repository.findAfter(queries.buildSpec(filter), queries.pinnedColumns(filter, order), order, after, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Task> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? TaskCursor.after(content.get(size - 1), order).encode() : null;
+        return new CursorPage<>(content, size, hasNext, nextCursor);
+    }
+
+    // Every status gets a column, empty ones included. nextCursor continues a column through keyset paging with the same
+    // filters, sort and that status.
+    public List<BoardColumn> getBoard(TaskFilter filter, String sortBy, String direction, int perColumn) {
+        Sort.Order order = queries.buildOrder(sortBy, direction);
+        Map<TaskStatus, List<Task>> tasks = new EnumMap<>(TaskStatus.class);
+        Map<TaskStatus, Long> totals = new EnumMap<>(TaskStatus.class);
+        for (TaskRepositoryCustom.BoardRow row : repository.findBoard(queries.buildSpec(filter), order, perColumn)) {
+            tasks.computeIfAbsent(row.task().getStatus(), status -> new ArrayList<>()).add(row.task());
+            totals.put(row.task().getStatus(), row.columnTotal());
+        }
+        List<BoardColumn> columns = new ArrayList<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            List<Task> column = tasks.getOrDefault(status, List.of());
+            long total = totals.getOrDefault(status, 0L);
+            String nextCursor = total > column.size() ? TaskCursor.after(column.get(column.size() - 1), order).encode() : null;
+            columns.add(new BoardColumn(status, total, column, nextCursor));
+        }
+        return columns;
+    }
+
+    @Transactional(readOnly = true)
+    public long forEach(TaskFilter filter, String sortBy, String direction, Consumer<Task> action) {
+        Sort.Order order = queries.buildOrder(sortBy, direction);
+        return repository.scan(queries.buildSpec(filter), queries.pinnedColumns(filter, order), order, action);
+    }
+
+    public long getVersion(Long id) {
+        return repository.findVersionById(id).orElseThrow(() -> new TaskNotFoundException(id));
+    }
+
+    public List<TagCount> getTagCounts(int limit) {
+        return repository.countTags(limit);
     }
 
     public Task getById(Long id) {
-        return repository.findById(id).orElseThrow(() -> new TaskNotFoundException(id));
+        return cache.task(id, () -> find(id));
     }
 
     @Transactional
     public Task create(Task task) {
         task.setId(null);
-        return repository.save(task);
+        task.setVersion(null);
+        Task created = repository.save(task);
+        statistics.apply(new TaskStatistics.Delta().change(null, TaskStatistics.Snapshot.of(created)));
+        events.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, created));
+        return created;
     }
 
     @Transactional
     public Task update(Long id, Task updates) {
-        Task existing = getById(id);
+        Task existing = find(id);
+        TaskStatistics.Snapshot before = TaskStatistics.Snapshot.of(existing);
+        apply(existing, updates);
+        Task updated = repository.save(existing);
+        statistics.apply(new TaskStatistics.Delta().change(before, TaskStatistics.Snapshot.of(updated)));
+        events.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, updated));
+        return updated;
+    }
+
+    // Flushes before returning so the response carries the new version. If another writer committed after the task
+    // was loaded, the versioned UPDATE matches no row and fails with an optimistic locking exception.
+    @Transactional
+    public Task patch(Long id, JsonNode patch, Long expectedVersion) {
+        Task existing = find(id);
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new PreconditionFailedException(id, existing.getVersion());
+        }
+        TaskStatistics.Snapshot before = TaskStatistics.Snapshot.of(existing);
+        merge(existing, patch);
+        String violations = validate(existing);
+        if (violations != null) {
+            throw new InvalidPatchException(violations);
+        }
+        Task patched = repository.saveAndFlush(existing);
+        statistics.apply(new TaskStatistics.Delta().change(before, TaskStatistics.Snapshot.of(patched)));
+        events.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, patched));
+        return patched;
+    }
+
+    // A single statement that bumps the version and returns the replaced state, from which the counters move,
+    // without loading the task first. Nothing back means missing, stale or, on Postgres, overtaken by a concurrent
+    // write; only then is the version read, to tell those apart. An unconditional update simply tries again.
+    @Transactional
+    public long updateStatus(Long id, TaskStatus status, Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        TaskRepositoryCustom.StatusChange change;
+        while ((change = repository.updateStatus(id, status, expectedVersion, now).orElse(null)) == null) {
+            long version = getVersion(id);
+            if (expectedVersion != null) {
+                throw new PreconditionFailedException(id, version);
+            }
+        }
+        statistics.apply(new TaskStatistics.Delta().change(change.before(), change.before().withStatus(status)));
+        Task changed = new Task();
+        changed.setId(id);
+        changed.setStatus(status);
+        changed.setVersion(change.version());
+        changed.setUpdatedAt(now);
+        events.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.STATUS_CHANGED, changed));
+        return change.version();
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        Task existing = find(id);
+        repository.delete(existing);
+        statistics.apply(new TaskStatistics.Delta().change(TaskStatistics.Snapshot.of(existing), null));
+        events.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, existing));
+    }
+
+    @Transactional
+    public BulkResult createAll(List<Task> tasks) {
+        checkBulkSize(tasks.size());
+        List<BulkItemResult> results = new ArrayList<>(tasks.size());
+        TaskStatistics.Delta counts = new TaskStatistics.Delta();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            String violations = validate(task);
+            if (violations != null) {
+                results.add(BulkItemResult.failed(i, null, "VALIDATION", violations));
+                continue;
+            }
+            task.setId(null);
+            task.setVersion(null);
+            repository.save(task);
+            counts.change(null, TaskStatistics.Snapshot.of(task));
+            events.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, task));
+            results.add(BulkItemResult.succeeded(i, task.getId(), BulkItemResult.Outcome.CREATED));
+            if ((i + 1) % BULK_CHUNK == 0) {
+                flushAndClear();
+            }
+        }
+        statistics.apply(counts);
+        return BulkResult.of(results);
+    }
+
+    @Transactional
+    public BulkResult updateAll(List<Task> tasks) {
+        checkBulkSize(tasks.size());
+        List<BulkItemResult> results = new ArrayList<>(tasks.size());
+        TaskStatistics.Delta counts = new TaskStatistics.Delta();
+        for (int from = 0; from < tasks.size(); from += BULK_CHUNK) {
+            List<Task> chunk = tasks.subList(from, Math.min(from + BULK_CHUNK, tasks.size()));
+            Map<Long, Task> existing = load(chunk.stream().filter(t -> t != null).map(Task::getId).toList());
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = from + i;
+                Task updates = chunk.get(i);
+                String violations = updates != null && updates.getId() == null ? "id: must not be null" : validate(updates);
+                if (violations != null) {
+                    results.add(BulkItemResult.failed(index, updates == null ? null : updates.getId(), "VALIDATION", violations));
+                    continue;
+                }
+                Task target = existing.get(updates.getId());
+                if (target == null) {
+                    results.add(notFound(index, updates.getId()));
+                    continue;
+                }
+                TaskStatistics.Snapshot before = TaskStatistics.Snapshot.of(target);
+                apply(target, updates);
+                counts.change(before, TaskStatistics.Snapshot.of(target));
+                events.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, target));
+                results.add(BulkItemResult.succeeded(index, target.getId(), BulkItemResult.Outcome.UPDATED));
+            }
+            flushAndClear();
+        }
+        statistics.apply(counts);
+        return BulkResult.of(results);
+    }
+
+    @Transactional
+    public BulkResult deleteAll(List<Long> ids) {
+        checkBulkSize(ids.size());
+        List<BulkItemResult> results = new ArrayList<>(ids.size());
+        TaskStatistics.Delta counts = new TaskStatistics.Delta();
+        Set<Long> deleted = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK, ids.size()));
+            Map<Long, Task> existing = load(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i);
+                Task target = id == null ? null : existing.get(id);
+                if (target == null || !deleted.add(id)) {
+                    results.add(notFound(from + i, id));
+                    continue;
+                }
+                repository.delete(target);
+                counts.change(TaskStatistics.Snapshot.of(target), null);
+                events.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, target));
+                results.add(BulkItemResult.succeeded(from + i, id, BulkItemResult.Outcome.DELETED));
+            }
+            flushAndClear();
+        }
+        statistics.apply(counts);
+        return BulkResult.of(results);
+    }
+
+    // One UPDATE per chunk of up to 1000 ids, without loading any task. Filter matches are read in id order one chunk
+    // at a time, so memory stays flat however many tasks match; all chunks commit together.
+    @Transactional
+    public BulkChangeResult changeAll(BulkChangeRequest request) {
+        if ((request.ids() == null) == (request.filter() == null)) {
+            throw new InvalidPatchException("exactly one of ids or filter is required");
+        }
+        Map<String, Object> changes = parseChanges(request.set());
+        LocalDateTime now = LocalDateTime.now();
+        long updated = 0;
+        if (request.ids() != null) {
+            checkBulkSize(request.ids().size());
+            List<Long> ids = request.ids().stream().filter(id -> id != null).distinct().toList();
+            for (int from = 0; from < ids.size(); from += CHANGE_CHUNK) {
+                updated += changeChunk(ids.subList(from, Math.min(from + CHANGE_CHUNK, ids.size())), changes, now);
+            }
+        } else {
+            Specification<Task> spec = queries.buildSpec(request.filter());
+            List<Long> chunk = repository.findIds(spec, null, CHANGE_CHUNK);
+            while (!chunk.isEmpty()) {
+                updated += changeChunk(chunk, changes, now);
+                chunk = repository.findIds(spec, chunk.get(chunk.size() - 1), CHANGE_CHUNK);
+            }
+        }
+        return new BulkChangeResult(updated);
+    }
+
+    private int changeChunk(List<Long> ids, Map<String, Object> changes, LocalDateTime now) {
+        Map<Long, TaskStatistics.Snapshot> before = statistics.lock(ids);
+        int updated = repository.updateAll(ids, changes, now);
+        TaskStatistics.Delta counts = new TaskStatistics.Delta();
+        before.values().forEach(task -> counts.change(task, task.with(changes)));
+        statistics.apply(counts);
+        events.publishEvent(new TaskBatchChangedEvent(List.copyOf(ids), changes));
+        return updated;
+    }
+
+    private Task find(Long id) {
+        return repository.findById(id).orElseThrow(() -> new TaskNotFoundException(id));
+    }
+
+    private void apply(Task existing, Task updates) {
         existing.setTitle(updates.getTitle());
         existing.setDescription(updates.getDescription());
         existing.setStatus(updates.getStatus() == null ? existing.getStatus() : updates.getStatus());
@@ -64,56 +467,98 @@ public class TaskService {
             existing.setArchived(updates.getArchived());
         }
         existing.setDueDate(updates.getDueDate());
-        return repository.save(existing);
     }
 
-    @Transactional
-    public void delete(Long id) {
-        Task existing = getById(id);
-        repository.delete(existing);
+    // JSON Merge Patch (RFC 7386): members present in the patch replace the field, null clears it.
+    private void merge(Task target, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidPatchException("patch: must be a JSON object");
+        }
+        List<String> errors = new ArrayList<>();
+        patch.fields().forEachRemaining(field -> {
+            if (!PATCHABLE.contains(field.getKey())) {
+                errors.add(field.getKey() + ": cannot be patched");
+            } else if (NOT_NULL.contains(field.getKey()) && field.getValue().isNull()) {
+                errors.add(field.getKey() + ": must not be null");
+            }
+        });
+        if (!errors.isEmpty()) {
+            throw new InvalidPatchException(errors.stream().sorted().collect(Collectors.joining("; ")));
+        }
+        try {
+            objectMapper.readerForUpdating(target).readValue(patch);
+        } catch (JsonProcessingException ex) {
+            throw new InvalidPatchException(ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 
-    private Sort buildSort(String sortBy, String direction) {
-        Set<String> allowed = Set.of("createdAt", "dueDate", "priority", "status", "title", "assignee");
-        String property = allowed.contains(sortBy) ? sortBy : "createdAt";
-        Sort.Direction dir = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
-        return Sort.by(dir, property);
+    private Map<String, Object> parseChanges(JsonNode set) {
+        if (set == null || !set.isObject() || set.isEmpty()) {
+            throw new InvalidPatchException("set: must contain at least one of " + new TreeSet<>(BULK_CHANGEABLE.keySet()));
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        set.fields().forEachRemaining(field -> {
+            String name = field.getKey();
+            if (!BULK_CHANGEABLE.containsKey(name)) {
+                errors.add(name + ": cannot be changed in bulk");
+            } else if (NOT_NULL.contains(name) && field.getValue().isNull()) {
+                errors.add(name + ": must not be null");
+            } else {
+                try {
+                    Object value = objectMapper.treeToValue(field.getValue(), BULK_CHANGEABLE.get(name));
+                    validator.validateValue(Task.class, name, value)
+                        .forEach(v -> errors.add(name + ": " + v.getMessage()));
+                    changes.put(name, value);
+                } catch (JsonProcessingException ex) {
+                    errors.add(name + ": " + ex.getOriginalMessage());
+                }
+            }
+        });
+        if (!errors.isEmpty()) {
+            throw new InvalidPatchException(errors.stream().sorted().collect(Collectors.joining("; ")));
+        }
+        return Collections.unmodifiableMap(changes);
     }
 
-    private Specification<Task> buildSpec(
-        TaskStatus status,
-        TaskPriority priority,
-        Boolean archived,
-        String query,
-        LocalDate dueDateFrom,
-        LocalDate dueDateTo
-    ) {
-        return (root, cq, cb) -> {
-            var predicates = cb.conjunction();
+    private void checkBulkSize(int size) {
+        if (size > bulkLimit) {
+            throw new BulkLimitExceededException(size, bulkLimit);
+        }
+    }
 
-            if (status != null) {
-                predicates.getExpressions().add(cb.equal(root.get("status"), status));
-            }
-            if (priority != null) {
-                predicates.getExpressions().add(cb.equal(root.get("priority"), priority));
-            }
-            if (archived != null) {
-                predicates.getExpressions().add(cb.equal(root.get("archived"), archived));
-            }
-            if (query != null && !query.isBlank()) {
-                String like = "%" + query.trim().toLowerCase() + "%";
-                var titleLike = cb.like(cb.lower(root.get("title")), like);
-                var descLike = cb.like(cb.lower(root.get("description")), like);
-                predicates.getExpressions().add(cb.or(titleLike, descLike));
-            }
-            if (dueDateFrom != null) {
-                predicates.getExpressions().add(cb.greaterThanOrEqualTo(root.get("dueDate"), dueDateFrom));
-            }
-            if (dueDateTo != null) {
-                predicates.getExpressions().add(cb.lessThanOrEqualTo(root.get("dueDate"), dueDateTo));
-            }
+    private String validate(Task task) {
+        if (task == null) {
+            return "task: must not be null";
+        }
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    private Map<Long, Task> load(List<Long> ids) {
+        List<Long> present = ids.stream().filter(id -> id != null).toList();
+        return repository.findAllById(present).stream().collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+
+    private BulkItemResult notFound(int index, Long id) {
+        return BulkItemResult.failed(index, id, "NOT_FOUND", new TaskNotFoundException(id).getMessage());
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
 
-            return predicates;
-        };
+    @FunctionalInterface
+    private interface RowLoader<T> {
+        List<T> load(Specification<Task> spec, Pageable pageable, int limit);
     }
 }
@@ -0,0 +1,250 @@
+package com.example.taskmanager;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Dashboard counters kept in the task_counts table: one row per status, priority, assignee and open due date, plus
+// unassigned and archived. TaskService moves them in the same transaction as each write by the difference between a
+// task's old and new state, so every instance reads the same committed numbers with one query. Overdue changes with
+// the date, not with writes, so open tasks are counted per due date and summed up to today when read.
+@Component
+public class TaskStatistics {
+
+    private static final String UPDATE = """
+        UPDATE task_counts SET tasks = tasks + ?, estimate_hours = estimate_hours + ? WHERE dimension = ? AND bucket = ?""";
+    private static final String INSERT = "INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours) VALUES (?, ?, ?, ?)";
+    // Same as V16__create_task_counts.sql.
+    private static final List<String> RECOUNT = List.of(
+        "DELETE FROM task_counts",
+        """
+        INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+        SELECT 'status', status, COUNT(*), COALESCE(SUM(estimate_hours), 0) FROM tasks GROUP BY status""",
+        """
+        INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+        SELECT 'priority', priority, COUNT(*), 0 FROM tasks GROUP BY priority""",
+        """
+        INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+        SELECT 'assignee', assignee, COUNT(*), 0 FROM tasks WHERE assignee IS NOT NULL GROUP BY assignee""",
+        """
+        INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+        SELECT 'unassigned', '', COUNT(*), 0 FROM tasks WHERE assignee IS NULL HAVING COUNT(*) > 0""",
+        """
+        INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+        SELECT 'archived', '', COUNT(*), 0 FROM tasks WHERE archived HAVING COUNT(*) > 0""",
+        """
+        INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+        SELECT 'open_due', TO_CHAR(due_date, 'YYYY-MM-DD'), COUNT(*), 0 FROM tasks
+        WHERE status <> 'DONE' AND NOT archived AND due_date IS NOT NULL
+        GROUP BY TO_CHAR(due_date, 'YYYY-MM-DD')""");
+
+    private final JdbcTemplate jdbc;
+
+    public TaskStatistics(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // For tasks written behind the application's back (seed scripts, load tests). Writes made meanwhile may be
+    // counted twice or not at all, so run it while nothing else writes.
+    @Transactional
+    public void rebuild() {
+        RECOUNT.forEach(jdbc::execute);
+    }
+
+    public TaskStats snapshot() {
+        LocalDate today = LocalDate.now();
+        Map<TaskStatus, Long> statuses = new EnumMap<>(TaskStatus.class);
+        Map<TaskPriority, Long> priorities = new EnumMap<>(TaskPriority.class);
+        Map<String, Long> assignees = new HashMap<>();
+        long[] totals = new long[5];
+        jdbc.query("SELECT dimension, bucket, tasks, estimate_hours FROM task_counts WHERE tasks <> 0", rs -> {
+            String bucket = rs.getString("bucket");
+            long tasks = rs.getLong("tasks");
+            switch (rs.getString("dimension")) {
+                case "status" -> {
+                    statuses.put(TaskStatus.valueOf(bucket), tasks);
+                    totals[0] += tasks;
+                    totals[1] += rs.getLong("estimate_hours");
+                }
+                case "priority" -> priorities.put(TaskPriority.valueOf(bucket), tasks);
+                case "assignee" -> assignees.put(bucket, tasks);
+                case "unassigned" -> totals[2] += tasks;
+                case "archived" -> totals[3] += tasks;
+                case "open_due" -> totals[4] += LocalDate.parse(bucket).isBefore(today) ? tasks : 0;
+                default -> {
+                }
+            }
+        });
+        for (TaskStatus status : TaskStatus.values()) {
+            statuses.putIfAbsent(status, 0L);
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            priorities.putIfAbsent(priority, 0L);
+        }
+        Map<String, Long> byCount = new LinkedHashMap<>();
+        assignees.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .forEachOrdered(entry -> byCount.put(entry.getKey(), entry.getValue()));
+        return new TaskStats(totals[0], statuses, priorities, byCount, totals[2], totals[3], totals[4], totals[1]);
+    }
+
+    // Locks the tasks' rows until the transaction ends, so set-based changes that do not load the entities know the
+    // state they replace.
+    public Map<Long, Snapshot> lock(Collection<Long> ids) {
+        Map<Long, Snapshot> snapshots = new HashMap<>();
+        if (ids.isEmpty()) {
+            return snapshots;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        jdbc.query("SELECT id, status, priority, assignee, archived, due_date, estimate_hours FROM tasks WHERE id IN ("
+            + placeholders + ") FOR UPDATE", rs -> {
+            snapshots.put(rs.getLong("id"), Snapshot.of(rs));
+        }, ids.toArray());
+        return snapshots;
+    }
+
+    // Rows are updated in key order, so two writers never wait on each other's rows in opposite orders. A bucket seen
+    // for the first time is inserted first; if a concurrent writer inserted it meanwhile, it is updated instead.
+    public void apply(Delta delta) {
+        delta.changes.forEach((key, change) -> {
+            if (change[0] == 0 && change[1] == 0) {
+                return;
+            }
+            if (jdbc.update(UPDATE, change[0], change[1], key.dimension(), key.bucket()) > 0) {
+                return;
+            }
+            if (!insert(key, change)) {
+                jdbc.update(UPDATE, change[0], change[1], key.dimension(), key.bucket());
+            }
+        });
+    }
+
+    // Postgres aborts the whole transaction on a failed statement, so the insert is rolled back to a savepoint instead.
+    private boolean insert(Key key, long[] change) {
+        return jdbc.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                statement.setString(1, key.dimension());
+                statement.setString(2, key.bucket());
+                statement.setLong(3, change[0]);
+                statement.setLong(4, change[1]);
+                statement.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                return true;
+            } catch (SQLException ex) {
+                if (!(jdbc.getExceptionTranslator().translate("insert", INSERT, ex) instanceof DuplicateKeyException)) {
+                    throw ex;
+                }
+                connection.rollback(savepoint);
+                return false;
+            }
+        });
+    }
+
+    // The differences a set of writes makes to the counters; null stands for a task that does not exist on that side.
+    static final class Delta {
+
+        private final Map<Key, long[]> changes = new TreeMap<>();
+
+        Delta change(Snapshot before, Snapshot after) {
+            add(before, -1);
+            add(after, 1);
+            return this;
+        }
+
+        private void add(Snapshot task, int sign) {
+            if (task == null) {
+                return;
+            }
+            count("status", task.status().name(), sign, (long) sign * task.estimateHours());
+            count("priority", task.priority().name(), sign, 0);
+            if (task.assignee() == null) {
+                count("unassigned", "", sign, 0);
+            } else {
+                count("assignee", task.assignee(), sign, 0);
+            }
+            if (task.archived()) {
+                count("archived", "", sign, 0);
+            }
+            if (task.open() && task.dueDate() != null) {
+                count("open_due", task.dueDate().toString(), sign, 0);
+            }
+        }
+
+        private void count(String dimension, String bucket, long tasks, long estimateHours) {
+            long[] change = changes.computeIfAbsent(new Key(dimension, bucket), key -> new long[2]);
+            change[0] += tasks;
+            change[1] += estimateHours;
+        }
+    }
+
+    record Snapshot(
+        TaskStatus status,
+        TaskPriority priority,
+        String assignee,
+        boolean archived,
+        LocalDate dueDate,
+        int estimateHours
+    ) {
+
+        static Snapshot of(Task task) {
+            return new Snapshot(task.getStatus(), task.getPriority(), task.getAssignee(), Boolean.TRUE.equals(task.getArchived()),
+                task.getDueDate(), task.getEstimateHours() == null ? 0 : task.getEstimateHours());
+        }
+
+        static Snapshot of(ResultSet rs) throws SQLException {
+            Date dueDate = rs.getDate("due_date");
+            return new Snapshot(
+                TaskStatus.valueOf(rs.getString("status")),
+                TaskPriority.valueOf(rs.getString("priority")),
+                rs.getString("assignee"),
+                rs.getBoolean("archived"),
+                dueDate == null ? null : dueDate.toLocalDate(),
+                rs.getInt("estimate_hours"));
+        }
+
+        Snapshot withStatus(TaskStatus status) {
+            return new Snapshot(status, priority, assignee, archived, dueDate, estimateHours);
+        }
+
+        Snapshot with(Map<String, Object> changes) {
+            return new Snapshot(
+                (TaskStatus) changes.getOrDefault("status", status),
+                (TaskPriority) changes.getOrDefault("priority", priority),
+                changes.containsKey("assignee") ? (String) changes.get("assignee") : assignee,
+                (Boolean) changes.getOrDefault("archived", archived),
+                dueDate,
+                estimateHours);
+        }
+
+        boolean open() {
+            return status != TaskStatus.DONE && !archived;
+        }
+    }
+
+    private record Key(String dimension, String bucket) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byDimension = dimension.compareTo(other.dimension);
+            return byDimension != 0 ? byDimension : bucket.compareTo(other.bucket);
+        }
+    }
+}
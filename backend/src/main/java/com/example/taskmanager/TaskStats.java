@@ -0,0 +1,15 @@
+package com.example.taskmanager;
+
+import java.util.Map;
+
+public record TaskStats(
+    long total,
+    Map<TaskStatus, Long> byStatus,
+    Map<TaskPriority, Long> byPriority,
+    Map<String, Long> byAssignee,
+    long unassigned,
+    long archived,
+    long overdue,
+    long estimateHours
+) {
+}
@@ -0,0 +1,61 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.metrics.EntityLoadCounter;
+import com.example.taskmanager.metrics.ProfilingDataSource;
+import com.example.taskmanager.metrics.QueryCountFilter;
+import com.example.taskmanager.metrics.SqlProfiler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    // Static, so the data source can be wrapped without creating this configuration early.
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(Environment environment, ObjectProvider<SqlProfiler> profiler) {
+        boolean enabled = environment.getProperty("app.sql.profiler.enabled", Boolean.class, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof ProfilingDataSource)) {
+                    return new ProfilingDataSource(dataSource, profiler.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public EntityLoadCounter entityLoadCounter() {
+        return new EntityLoadCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityLoadCountingCustomizer(EntityLoadCounter counter) {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, counter);
+    }
+
+    // Outside the security chain and the rate limiter, so queries made while authenticating are counted too.
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(
+        SqlProfiler profiler,
+        EntityLoadCounter entityLoads,
+        MeterRegistry registry
+    ) {
+        FilterRegistrationBean<QueryCountFilter> registration =
+            new FilterRegistrationBean<>(new QueryCountFilter(profiler, entityLoads, registry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.taskmanager.config;
+
+import com.example.taskmanager.security.JwtService;
+import com.example.taskmanager.security.RateLimitFilter;
+import com.example.taskmanager.security.TokenBuckets;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+        JwtService jwtService,
+        MeterRegistry registry,
+        @Value("${app.rate-limit.api.capacity}") double apiCapacity,
+        @Value("${app.rate-limit.api.refill-per-second}") double apiRefill,
+        @Value("${app.rate-limit.login.capacity}") double loginCapacity,
+        @Value("${app.rate-limit.login.refill-per-second}") double loginRefill,
+        @Value("${app.rate-limit.max-clients}") long maxClients
+    ) {
+        RateLimitFilter filter = new RateLimitFilter(
+            jwtService,
+            new TokenBuckets(apiCapacity, apiRefill, maxClients),
+            new TokenBuckets(loginCapacity, loginRefill, maxClients),
+            registry
+        );
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
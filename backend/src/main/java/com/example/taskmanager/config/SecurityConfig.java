@@ -1,14 +1,20 @@
 package com.example.taskmanager.config;
 
 import com.example.taskmanager.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -25,6 +31,33 @@ import java.util.List;
 @Configuration
 public class SecurityConfig {
 
+    // Prometheus scrapes with a Basic credential of its own, checked only here: it cannot log in to the API and API
+    // tokens do not open the metrics. Without app.metrics.scrape-password no credential is accepted.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsFilterChain(
+        HttpSecurity http,
+        PasswordEncoder passwordEncoder,
+        @Value("${app.metrics.scrape-username:prometheus}") String username,
+        @Value("${app.metrics.scrape-password:}") String password
+    ) throws Exception {
+        List<UserDetails> scrapers = password.isBlank() ? List.of() : List.of(User.withUsername(username)
+            .password(passwordEncoder.encode(password))
+            .roles("METRICS")
+            .build());
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(scrapers));
+        http
+            .securityMatcher("/actuator/prometheus")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authenticationManager(new ProviderManager(provider))
+            .httpBasic(basic -> {})
+            .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICS"));
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtFilter) throws Exception {
         http
@@ -33,9 +66,11 @@ public class SecurityConfig {
             .cors(cors -> {})
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/login", "/api/auth/refresh").permitAll()
                 .requestMatchers("/h2/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/", "/index.html", "/assets/**").permitAll()
+                .requestMatchers("/actuator/sqlprofile").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/tasks/**").hasAnyRole("USER", "ADMIN")
                 .requestMatchers("/api/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
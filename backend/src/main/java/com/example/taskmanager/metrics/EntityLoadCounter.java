@@ -0,0 +1,38 @@
+package com.example.taskmanager.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+// Counts the entities Hibernate loads on the current thread while a request is being counted. The hook runs once
+// per entity, so it only bumps a field; with no request open it returns at once.
+public class EntityLoadCounter implements Interceptor {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    public Counts start() {
+        Counts counts = new Counts();
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    public void stop() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+        return false;
+    }
+
+    public static final class Counts {
+        private int entityLoads;
+
+        public int entityLoads() {
+            return entityLoads;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.taskmanager.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Hands out connections whose statements report each execute to the SqlProfiler, so Hibernate, JdbcTemplate and
+// Flyway are all covered. unwrap() still reaches the pool, which is how Boot finds Hikari for its metrics.
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private final SqlProfiler profiler;
+
+    public ProfilingDataSource(DataSource target, SqlProfiler profiler) {
+        super(target);
+        this.profiler = profiler;
+        profiler.explainWith(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = ProfilingDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement", "prepareCall" ->
+                    proxy(method.getReturnType(), new StatementHandler((Statement) result, (String) args[0]));
+                case "createStatement" -> proxy(method.getReturnType(), new StatementHandler((Statement) result, null));
+                default -> result;
+            };
+        }
+    }
+
+    // Parameters are only kept when the slow log or EXPLAIN needs them; setters are otherwise passed straight on.
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Map<Integer, Object> parameters;
+        private String sql;
+
+        private StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+            this.parameters = sql != null && profiler.capturesParameters() ? new TreeMap<>() : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+                long start = System.nanoTime();
+                try {
+                    return ProfilingDataSource.invoke(target, method, args);
+                } finally {
+                    if (executed != null) {
+                        profiler.record(executed, System.nanoTime() - start, parameters);
+                    }
+                }
+            }
+            if (parameters != null && name.startsWith("set") && args != null && args.length >= 2
+                && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (parameters != null && name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch") && args != null && args.length == 1 && sql == null) {
+                sql = (String) args[0];
+            }
+            return ProfilingDataSource.invoke(target, method, args);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.taskmanager.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Records how many statements and entity loads each request caused, tagged like http.server.requests with the
+// method and the matched URI template, so an endpoint that starts issuing one query per row shows up as a shifted
+// histogram rather than only as latency.
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final double[] BUCKETS = {1, 2, 5, 10, 25, 50, 100, 250};
+
+    private final SqlProfiler profiler;
+    private final EntityLoadCounter entityLoads;
+    private final MeterRegistry registry;
+
+    public QueryCountFilter(SqlProfiler profiler, EntityLoadCounter entityLoads, MeterRegistry registry) {
+        this.profiler = profiler;
+        this.entityLoads = entityLoads;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        EntityLoadCounter.Counts loads = entityLoads.start();
+        SqlProfiler.Scope statements = profiler.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statements.close();
+            entityLoads.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            summary("http.server.db.statements", "SQL statements executed per request", request, uri)
+                .record(statements.statements());
+            summary("http.server.db.entity.loads", "Entities loaded per request", request, uri)
+                .record(loads.entityLoads());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .serviceLevelObjectives(BUCKETS)
+            .register(registry);
+    }
+}
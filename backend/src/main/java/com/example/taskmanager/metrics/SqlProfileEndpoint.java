@@ -0,0 +1,32 @@
+package com.example.taskmanager.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET /actuator/sqlprofile?limit=20 lists statement shapes by total time spent; DELETE starts a fresh profile.
+@Component
+@Endpoint(id = "sqlprofile")
+public class SqlProfileEndpoint {
+
+    private final SqlProfiler profiler;
+
+    public SqlProfileEndpoint(SqlProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public List<SqlProfiler.ShapeStats> shapes(@Nullable Integer limit) {
+        List<SqlProfiler.ShapeStats> shapes = profiler.snapshot();
+        return limit == null || limit >= shapes.size() ? shapes : shapes.subList(0, Math.max(limit, 0));
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.taskmanager.metrics;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Every statement sent through the data source is timed and filed under its shape (see SqlShapes). Raw SQL strings
+// map to shapes through a bounded cache, so the regexes run once per distinct statement text, not per execution.
+// Statements over the slow threshold are logged; EXPLAIN for them runs later on one background thread so the slow
+// request does not wait for its own plan.
+@Component
+public class SqlProfiler {
+
+    private static final Logger SLOW = LoggerFactory.getLogger("sql.slow");
+    private static final String OTHER = "(other shapes)";
+    private static final int MAX_CACHED_SQL = 4096;
+    private static final int MAX_SCOPE_SHAPES = 100;
+
+    private final ThreadLocal<Scope> scopes = new ThreadLocal<>();
+    private final Map<String, Stats> bySql = new ConcurrentHashMap<>();
+    private final Map<String, Stats> byShape = new ConcurrentHashMap<>();
+    private final long slowNanos;
+    private final boolean logParameters;
+    private final boolean explainSlow;
+    private final int maxShapes;
+    private final ExecutorService explainer;
+    private volatile DataSource explainSource;
+
+    public SqlProfiler(
+        @Value("${app.sql.profiler.slow-threshold:200ms}") Duration slowThreshold,
+        @Value("${app.sql.profiler.log-parameters:false}") boolean logParameters,
+        @Value("${app.sql.profiler.explain-slow:false}") boolean explainSlow,
+        @Value("${app.sql.profiler.max-shapes:1000}") int maxShapes
+    ) {
+        this.slowNanos = slowThreshold.toNanos();
+        this.logParameters = logParameters;
+        this.explainSlow = explainSlow;
+        this.maxShapes = maxShapes;
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16), task -> {
+            Thread thread = new Thread(task, "sql-explain");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Counts the statements run on this thread until closed, for per-request metrics and statement budgets in tests.
+    // Scopes nest; a statement counts towards every open one.
+    public Scope open() {
+        return open(false);
+    }
+
+    // Like open(), and also keeps the statements with their bound parameters, e.g. to EXPLAIN them as they ran.
+    public Scope capture() {
+        return open(true);
+    }
+
+    public List<ShapeStats> snapshot() {
+        List<ShapeStats> shapes = new ArrayList<>(byShape.size());
+        byShape.values().forEach(stats -> shapes.add(stats.view()));
+        shapes.sort(Comparator.comparingDouble(ShapeStats::totalMillis).reversed());
+        return shapes;
+    }
+
+    public void reset() {
+        bySql.clear();
+        byShape.clear();
+    }
+
+    @PreDestroy
+    public void close() {
+        explainer.shutdownNow();
+    }
+
+    boolean capturesParameters() {
+        if (logParameters || explainSlow) {
+            return true;
+        }
+        for (Scope scope = scopes.get(); scope != null; scope = scope.parent) {
+            if (scope.executed != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The unwrapped data source, so EXPLAIN runs are not profiled themselves.
+    void explainWith(DataSource dataSource) {
+        this.explainSource = dataSource;
+    }
+
+    void record(String sql, long nanos, Map<Integer, Object> parameters) {
+        Stats stats = bySql.get(sql);
+        if (stats == null) {
+            stats = register(sql);
+        }
+        stats.histogram.record(nanos);
+        for (Scope scope = scopes.get(); scope != null; scope = scope.parent) {
+            scope.add(stats.shape, sql, parameters);
+        }
+        if (nanos >= slowNanos) {
+            logSlow(sql, nanos, parameters);
+        }
+    }
+
+    private Scope open(boolean capture) {
+        Scope scope = new Scope(scopes.get(), capture);
+        scopes.set(scope);
+        return scope;
+    }
+
+    private Stats register(String sql) {
+        String shape = SqlShapes.of(sql);
+        Stats stats = byShape.get(shape);
+        if (stats == null) {
+            String key = byShape.size() < maxShapes ? shape : OTHER;
+            stats = byShape.computeIfAbsent(key, Stats::new);
+        }
+        if (bySql.size() < MAX_CACHED_SQL) {
+            bySql.put(sql, stats);
+        }
+        return stats;
+    }
+
+    private void logSlow(String sql, long nanos, Map<Integer, Object> parameters) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (logParameters && parameters != null) {
+            SLOW.warn("{} ms: {} {}", millis, sql, parameters.values());
+        } else {
+            SLOW.warn("{} ms: {}", millis, sql);
+        }
+        String verb = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (explainSlow && explainSource != null && (verb.startsWith("select") || verb.startsWith("with"))) {
+            Map<Integer, Object> bound = parameters == null ? Map.of() : new TreeMap<>(parameters);
+            try {
+                explainer.execute(() -> explain(sql, bound));
+            } catch (RejectedExecutionException ex) {
+                // A burst of slow statements; the ones already queued are enough to go on.
+            }
+        }
+    }
+
+    private void explain(String sql, Map<Integer, Object> parameters) {
+        try (Connection connection = explainSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+                statement.setObject(parameter.getKey(), parameter.getValue());
+            }
+            StringJoiner plan = new StringJoiner("\n");
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.add(rows.getString(1));
+                }
+            }
+            SLOW.warn("Plan for {}\n{}", sql, plan);
+        } catch (Exception ex) {
+            SLOW.warn("EXPLAIN failed for {}: {}", sql, ex.getMessage());
+        }
+    }
+
+    public final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final List<String> shapes = new ArrayList<>();
+        private final List<Executed> executed;
+        private int statements;
+
+        private Scope(Scope parent, boolean capture) {
+            this.parent = parent;
+            this.executed = capture ? new ArrayList<>() : null;
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        // The first statements run in this scope, by shape.
+        public List<String> shapes() {
+            return List.copyOf(shapes);
+        }
+
+        // The first statements run in this scope as sent, with their parameters; empty unless opened by capture().
+        public List<Executed> executed() {
+            return executed == null ? List.of() : List.copyOf(executed);
+        }
+
+        private void add(String shape, String sql, Map<Integer, Object> parameters) {
+            statements++;
+            if (shapes.size() < MAX_SCOPE_SHAPES) {
+                shapes.add(shape);
+            }
+            if (executed != null && executed.size() < MAX_SCOPE_SHAPES) {
+                executed.add(new Executed(sql, parameters == null ? Map.of() : new TreeMap<>(parameters)));
+            }
+        }
+
+        // Scopes close in reverse order of opening, so the parent is what was open before this one.
+        @Override
+        public void close() {
+            if (parent == null) {
+                scopes.remove();
+            } else {
+                scopes.set(parent);
+            }
+        }
+    }
+
+    public record Executed(String sql, Map<Integer, Object> parameters) {
+    }
+
+    public record ShapeStats(String shape, long count, double totalMillis, double meanMillis, double p50Millis,
+                             double p99Millis, double maxMillis) {
+    }
+
+    private static final class Stats {
+        private final String shape;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private Stats(String shape) {
+            this.shape = shape;
+        }
+
+        private ShapeStats view() {
+            long count = histogram.count();
+            double total = histogram.totalNanos() / 1e6;
+            return new ShapeStats(shape, count, total, count == 0 ? 0 : total / count,
+                histogram.percentileMicros(0.5) / 1e3, histogram.percentileMicros(0.99) / 1e3, histogram.maxNanos() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.taskmanager.metrics;
+
+import java.util.regex.Pattern;
+
+// Reduces a statement to its shape: literals become ?, IN lists of any length become one, whitespace is collapsed.
+// Statements that differ only in values or list lengths are then profiled together.
+final class SqlShapes {
+
+    // Repeated groups are possessive: a backtracking group recurses once per repetition, which overflows the stack on
+    // a long string literal or an IN list with thousands of ids.
+    private static final Pattern STRING = Pattern.compile("'(?:[^']++|'')*+'");
+    private static final Pattern NUMBER = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*+\\(\\s*+\\?(?:\\s*+,\\s*+\\?)*+\\s*+\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlShapes() {
+    }
+
+    static String of(String sql) {
+        String shape = STRING.matcher(sql).replaceAll("?");
+        shape = NUMBER.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return IN_LIST.matcher(shape).replaceAll("in (?...)");
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.taskmanager.search;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskChangedEvent;
+import com.example.taskmanager.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTaskSearchIndex implements TaskSearchIndex {
+
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final int FILTER_CHUNK = 500;
+
+    private final TaskRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxMatches;
+    private final Object rebuildLock = new Object();
+    private volatile Postings postings = new Postings();
+    // Changes committed while a rebuild scans the table; null when no rebuild is running.
+    private List<TaskChangedEvent> pending;
+
+    public InMemoryTaskSearchIndex(
+        TaskRepository repository,
+        JdbcTemplate jdbcTemplate,
+        @Value("${app.search.memory.max-matches:1000}") int maxMatches
+    ) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxMatches = maxMatches;
+    }
+
+    // The scan may or may not see a write that commits while it runs, so those writes are replayed onto the new
+    // postings before they replace the old ones.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            pending = new ArrayList<>();
+        }
+        Postings rebuilt = new Postings();
+        try {
+            jdbcTemplate.query("SELECT id, title, description FROM tasks", rs -> {
+                rebuilt.put(rs.getLong("id"), rs.getString("title"), rs.getString("description"));
+            });
+        } catch (RuntimeException ex) {
+            synchronized (rebuildLock) {
+                pending = null;
+            }
+            throw ex;
+        }
+        synchronized (rebuildLock) {
+            pending.forEach(event -> apply(rebuilt, event));
+            postings = rebuilt;
+            pending = null;
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        synchronized (rebuildLock) {
+            if (pending != null) {
+                pending.add(event);
+            }
+            apply(postings, event);
+        }
+    }
+
+    private static void apply(Postings postings, TaskChangedEvent event) {
+        Task task = event.task();
+        switch (event.type()) {
+            case DELETED -> postings.remove(task.getId());
+            case CREATED, UPDATED -> postings.put(task.getId(), task.getTitle(), task.getDescription());
+            case STATUS_CHANGED -> {
+                // Title and description are unchanged, and the event only carries id, status and version.
+            }
+        }
+    }
+
+    // Each candidate id becomes a bind parameter (Postgres allows 32767 per statement), so a query that matches more
+    // than app.search.memory.max-matches tasks keeps only that many of the best-scoring ones, like a search engine's
+    // result limit. The rest are never considered, in a filtered list or in the total.
+    @Override
+    public Specification<Task> matching(SearchQuery query) {
+        List<Long> ids = candidates(query);
+        if (ids.isEmpty()) {
+            return (root, cq, cb) -> cb.disjunction();
+        }
+        return (root, cq, cb) -> root.get("id").in(ids);
+    }
+
+    // The candidates are checked against the filter a chunk at a time, best first, so no statement binds more than
+    // FILTER_CHUNK ids and the filter is never evaluated over the whole table.
+    @Override
+    public Page<Task> search(Specification<Task> filter, SearchQuery query, Pageable pageable) {
+        List<Long> candidates = candidates(query);
+        List<Long> ids = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += FILTER_CHUNK) {
+            List<Long> chunk = candidates.subList(from, Math.min(from + FILTER_CHUNK, candidates.size()));
+            Set<Long> kept = new HashSet<>(repository.findIds(filter.and((root, cq, cb) -> root.get("id").in(chunk))));
+            chunk.stream().filter(kept::contains).forEach(ids::add);
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+        Map<Long, Task> byId = repository.findAllById(pageIds).stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<Task> content = pageIds.stream().map(byId::get).filter(task -> task != null).toList();
+        return new PageImpl<>(content, pageable, ids.size());
+    }
+
+    // At most maxMatches ids, highest score first and newest first among equal scores.
+    private List<Long> candidates(SearchQuery query) {
+        Comparator<Map.Entry<Long, Double>> best = Map.Entry.<Long, Double>comparingByValue()
+            .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(best);
+        for (Map.Entry<Long, Double> entry : postings.score(query).entrySet()) {
+            if (top.size() < maxMatches) {
+                top.add(entry);
+            } else if (best.compare(entry, top.peek()) > 0) {
+                top.poll();
+                top.add(entry);
+            }
+        }
+        List<Long> ids = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ids.add(top.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    private static final class Postings {
+
+        private final NavigableMap<String, Map<Long, Double>> byTerm = new ConcurrentSkipListMap<>();
+        private final Map<Long, Set<String>> termsByTask = new ConcurrentHashMap<>();
+
+        synchronized void put(long id, String title, String description) {
+            remove(id);
+            Map<String, Double> weights = new HashMap<>();
+            SearchQuery.tokenize(title).forEach(term -> weights.merge(term, TITLE_WEIGHT, Double::sum));
+            SearchQuery.tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Double::sum));
+            weights.forEach((term, weight) -> byTerm.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(id, weight));
+            termsByTask.put(id, weights.keySet());
+        }
+
+        synchronized void remove(long id) {
+            Set<String> terms = termsByTask.remove(id);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Map<Long, Double> docs = byTerm.get(term);
+                if (docs != null) {
+                    docs.remove(id);
+                    if (docs.isEmpty()) {
+                        byTerm.remove(term);
+                    }
+                }
+            }
+        }
+
+        Map<Long, Double> score(SearchQuery query) {
+            Map<Long, Double> result = null;
+            for (SearchQuery.Term term : query.terms()) {
+                Map<Long, Double> matches = lookup(term);
+                if (result == null) {
+                    result = new HashMap<>(matches);
+                } else {
+                    result.keySet().retainAll(matches.keySet());
+                    result.replaceAll((id, score) -> score + matches.getOrDefault(id, 0.0));
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result == null ? Map.of() : result;
+        }
+
+        private Map<Long, Double> lookup(SearchQuery.Term term) {
+            if (!term.prefix()) {
+                return byTerm.getOrDefault(term.text(), Map.of());
+            }
+            Map<Long, Double> matches = new HashMap<>();
+            byTerm.subMap(term.text(), true, term.text() + Character.MAX_VALUE, false)
+                .values()
+                .forEach(docs -> docs.forEach((id, weight) -> matches.merge(id, weight, Math::max)));
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.taskmanager.search;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "like")
+public class LikeTaskSearchIndex implements TaskSearchIndex {
+
+    private final TaskRepository repository;
+
+    public LikeTaskSearchIndex(TaskRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Specification<Task> matching(SearchQuery query) {
+        String like = pattern(query);
+        return (root, cq, cb) -> cb.or(
+            cb.like(cb.lower(root.get("title")), like),
+            cb.like(cb.lower(root.get("description")), like)
+        );
+    }
+
+    @Override
+    public Page<Task> search(Specification<Task> filter, SearchQuery query, Pageable pageable) {
+        String like = pattern(query);
+        Specification<Task> ranked = (root, cq, cb) -> {
+            var titleHit = cb.<Integer>selectCase()
+                .when(cb.like(cb.lower(root.get("title")), like), 1)
+                .otherwise(0);
+            cq.orderBy(cb.desc(titleHit), cb.desc(root.get("id")));
+            return null;
+        };
+        return repository.findAll(filter.and(ranked), PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    private String pattern(SearchQuery query) {
+        return "%" + query.raw().toLowerCase() + "%";
+    }
+}
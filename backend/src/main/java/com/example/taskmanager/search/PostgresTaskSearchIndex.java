@@ -0,0 +1,43 @@
+package com.example.taskmanager.search;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres")
+public class PostgresTaskSearchIndex implements TaskSearchIndex {
+
+    private final TaskRepository repository;
+
+    public PostgresTaskSearchIndex(TaskRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Specification<Task> matching(SearchQuery query) {
+        if (query.isEmpty()) {
+            return (root, cq, cb) -> cb.disjunction();
+        }
+        String tsQuery = query.toTsQuery();
+        return (root, cq, cb) -> cb.isTrue(cb.function(SearchFunctionContributor.MATCH, Boolean.class, cb.literal(tsQuery)));
+    }
+
+    @Override
+    public Page<Task> search(Specification<Task> filter, SearchQuery query, Pageable pageable) {
+        String tsQuery = query.toTsQuery();
+        Specification<Task> ranked = (root, cq, cb) -> {
+            cq.orderBy(
+                cb.desc(cb.function(SearchFunctionContributor.RANK, Double.class, cb.literal(tsQuery))),
+                cb.desc(root.get("id"))
+            );
+            return null;
+        };
+        return repository.findAll(filter.and(ranked), PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.taskmanager.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+public class SearchFunctionContributor implements FunctionContributor {
+
+    static final String MATCH = "task_search_match";
+    static final String RANK = "task_search_rank";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        if (!(functionContributions.getDialect() instanceof PostgreSQLDialect)) {
+            return;
+        }
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        // search_vector is a generated column that is not mapped on Task, so it is referenced unqualified.
+        functionContributions.getFunctionRegistry().registerPattern(
+            MATCH,
+            "(search_vector @@ to_tsquery('simple', ?1))",
+            types.resolve(StandardBasicTypes.BOOLEAN)
+        );
+        functionContributions.getFunctionRegistry().registerPattern(
+            RANK,
+            "ts_rank(search_vector, to_tsquery('simple', ?1))",
+            types.resolve(StandardBasicTypes.DOUBLE)
+        );
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.taskmanager.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public record SearchQuery(String raw, List<Term> terms) {
+
+    private static final Pattern QUERY_TERM = Pattern.compile("([\\p{L}\\p{N}]+)(\\*)?");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    public record Term(String text, boolean prefix) {
+    }
+
+    public static SearchQuery parse(String raw) {
+        List<Term> terms = new ArrayList<>();
+        Matcher matcher = QUERY_TERM.matcher(raw.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            terms.add(new Term(matcher.group(1), matcher.group(2) != null));
+        }
+        return new SearchQuery(raw.trim(), List.copyOf(terms));
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        Matcher matcher = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            tokens.add(matcher.group());
+        }
+        return tokens;
+    }
+
+    public boolean isEmpty() {
+        return terms.isEmpty();
+    }
+
+    public String toTsQuery() {
+        return terms.stream()
+            .map(term -> term.prefix() ? term.text() + ":*" : term.text())
+            .collect(Collectors.joining(" & "));
+    }
+}
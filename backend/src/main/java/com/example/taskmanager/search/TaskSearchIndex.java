@@ -0,0 +1,13 @@
+package com.example.taskmanager.search;
+
+import com.example.taskmanager.Task;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface TaskSearchIndex {
+
+    Specification<Task> matching(SearchQuery query);
+
+    Page<Task> search(Specification<Task> filter, SearchQuery query, Pageable pageable);
+}
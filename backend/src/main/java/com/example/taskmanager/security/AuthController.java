@@ -18,31 +18,37 @@ public class AuthController {
     private final UserDetailsService userDetailsService;
     private final JwtService jwtService;
     private final RefreshTokenStore refreshTokenStore;
+    private final TokenVersionStore tokenVersions;
+    private final PasswordHashingExecutor passwordHashing;
 
     public AuthController(
         AuthenticationManager authenticationManager,
         UserDetailsService userDetailsService,
         JwtService jwtService,
-        RefreshTokenStore refreshTokenStore
+        RefreshTokenStore refreshTokenStore,
+        TokenVersionStore tokenVersions,
+        PasswordHashingExecutor passwordHashing
     ) {
         this.authenticationManager = authenticationManager;
         this.userDetailsService = userDetailsService;
         this.jwtService = jwtService;
         this.refreshTokenStore = refreshTokenStore;
+        this.tokenVersions = tokenVersions;
+        this.passwordHashing = passwordHashing;
     }
 
     @PostMapping("/login")
     public AuthResponse login(@RequestBody AuthRequest request) {
         try {
-            authenticationManager.authenticate(
+            passwordHashing.run(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-            );
+            ));
         } catch (AuthenticationException ex) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
         }
 
         UserDetails user = userDetailsService.loadUserByUsername(request.getUsername());
-        String accessToken = jwtService.generateAccessToken(user);
+        String accessToken = jwtService.generateAccessToken(user, tokenVersions.current(user.getUsername()));
         String refreshToken = jwtService.generateRefreshToken(user);
         refreshTokenStore.store(user.getUsername(), refreshToken);
         return new AuthResponse(accessToken, refreshToken);
@@ -51,21 +57,25 @@ public class AuthController {
     @PostMapping("/refresh")
     public AuthResponse refresh(@RequestBody RefreshRequest request) {
         String refreshToken = request.getRefreshToken();
-        String username;
+        JwtClaims claims;
         try {
-            username = jwtService.extractUsername(refreshToken);
+            claims = jwtService.parseToken(refreshToken);
         } catch (Exception ex) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
         }
 
-        UserDetails user = userDetailsService.loadUserByUsername(username);
-        if (!jwtService.isRefreshTokenValid(refreshToken, user) || !refreshTokenStore.isValid(username, refreshToken)) {
+        String username = claims.subject();
+        if (!claims.isRefresh()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
         }
+        UserDetails user = userDetailsService.loadUserByUsername(username);
 
-        String newAccessToken = jwtService.generateAccessToken(user);
+        // Checking and replacing the token is one step, so a token replayed concurrently is accepted at most once.
         String newRefreshToken = jwtService.generateRefreshToken(user);
-        refreshTokenStore.store(username, newRefreshToken);
+        if (!refreshTokenStore.rotate(username, refreshToken, newRefreshToken)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        String newAccessToken = jwtService.generateAccessToken(user, tokenVersions.current(username));
         return new AuthResponse(newAccessToken, newRefreshToken);
     }
 
@@ -75,6 +85,8 @@ public class AuthController {
         if (auth == null || auth.getName() == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Not authenticated");
         }
+        // Access tokens first: if the refresh token cannot be revoked, the user is still logged out everywhere.
+        tokenVersions.revokeAll(auth.getName());
         refreshTokenStore.revoke(auth.getName());
     }
 }
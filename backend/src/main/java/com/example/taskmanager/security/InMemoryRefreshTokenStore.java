@@ -0,0 +1,58 @@
+package com.example.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConditionalOnProperty(name = "app.refresh-tokens.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Cache<String, String> userToTokenHash;
+
+    public InMemoryRefreshTokenStore(
+        @Value("${app.jwt.refresh-expiration-minutes}") long ttlMinutes,
+        @Value("${app.refresh-tokens.max-size:100000}") long maxSize
+    ) {
+        this.userToTokenHash = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    @Override
+    public void store(String username, String refreshToken) {
+        if (username == null || refreshToken == null) {
+            return;
+        }
+        userToTokenHash.put(username, TokenHash.of(refreshToken));
+    }
+
+    @Override
+    public boolean isValid(String username, String refreshToken) {
+        if (username == null || refreshToken == null) {
+            return false;
+        }
+        return TokenHash.matches(refreshToken, userToTokenHash.getIfPresent(username));
+    }
+
+    // Expired entries count as absent, so an expired token cannot be rotated.
+    @Override
+    public boolean rotate(String username, String presented, String replacement) {
+        if (username == null || presented == null || replacement == null) {
+            return false;
+        }
+        return userToTokenHash.asMap().replace(username, TokenHash.of(presented), TokenHash.of(replacement));
+    }
+
+    @Override
+    public void revoke(String username) {
+        if (username != null) {
+            userToTokenHash.invalidate(username);
+        }
+    }
+}
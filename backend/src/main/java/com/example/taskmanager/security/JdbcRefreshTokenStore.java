@@ -0,0 +1,96 @@
+package com.example.taskmanager.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "app.refresh-tokens.store", havingValue = "jdbc")
+public class JdbcRefreshTokenStore implements RefreshTokenStore {
+
+    private static final int PURGE_BATCH = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final Duration ttl;
+
+    public JdbcRefreshTokenStore(JdbcTemplate jdbc, @Value("${app.jwt.refresh-expiration-minutes}") long ttlMinutes) {
+        this.jdbc = jdbc;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    @Override
+    public void store(String username, String refreshToken) {
+        if (username == null || refreshToken == null) {
+            return;
+        }
+        String hash = TokenHash.of(refreshToken);
+        OffsetDateTime expiresAt = now().plus(ttl);
+        String update = "UPDATE refresh_tokens SET token_hash = ?, expires_at = ? WHERE username = ?";
+        if (jdbc.update(update, hash, expiresAt, username) > 0) {
+            return;
+        }
+        try {
+            jdbc.update("INSERT INTO refresh_tokens (username, token_hash, expires_at) VALUES (?, ?, ?)", username, hash, expiresAt);
+        } catch (DuplicateKeyException ex) {
+            jdbc.update(update, hash, expiresAt, username);
+        }
+    }
+
+    @Override
+    public boolean isValid(String username, String refreshToken) {
+        if (username == null || refreshToken == null) {
+            return false;
+        }
+        List<String> hashes = jdbc.queryForList(
+            "SELECT token_hash FROM refresh_tokens WHERE username = ? AND expires_at > ?",
+            String.class, username, now());
+        return !hashes.isEmpty() && TokenHash.matches(refreshToken, hashes.get(0));
+    }
+
+    @Override
+    public boolean rotate(String username, String presented, String replacement) {
+        if (username == null || presented == null || replacement == null) {
+            return false;
+        }
+        OffsetDateTime now = now();
+        return jdbc.update("""
+            UPDATE refresh_tokens SET token_hash = ?, expires_at = ?
+            WHERE username = ? AND token_hash = ? AND expires_at > ?""",
+            TokenHash.of(replacement), now.plus(ttl), username, TokenHash.of(presented), now) == 1;
+    }
+
+    @Override
+    public void revoke(String username) {
+        if (username != null) {
+            jdbc.update("DELETE FROM refresh_tokens WHERE username = ?", username);
+        }
+    }
+
+    // Deletes in small batches so a large backlog never holds long locks on the table.
+    @Scheduled(fixedDelayString = "${app.refresh-tokens.purge-interval:PT10M}")
+    public int purgeExpired() {
+        OffsetDateTime cutoff = now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbc.update("""
+                DELETE FROM refresh_tokens WHERE username IN (
+                  SELECT username FROM refresh_tokens WHERE expires_at <= ? FETCH FIRST %d ROWS ONLY
+                )""".formatted(PURGE_BATCH), cutoff);
+            total += deleted;
+        } while (deleted == PURGE_BATCH);
+        return total;
+    }
+
+    private static OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneOffset.UTC);
+    }
+}
@@ -4,8 +4,11 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,16 +17,26 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionStore tokenVersions;
+    private final boolean principalFromClaims;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(
+        JwtService jwtService,
+        UserDetailsService userDetailsService,
+        TokenVersionStore tokenVersions,
+        @Value("${app.jwt.principal-from-claims:true}") boolean principalFromClaims
+    ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenVersions = tokenVersions;
+        this.principalFromClaims = principalFromClaims;
     }
 
     @Override
@@ -39,27 +52,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String username;
+        JwtClaims claims;
         try {
-            username = jwtService.extractUsername(token);
+            claims = jwtService.parseToken(token);
         } catch (Exception ex) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails user = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isAccessTokenValid(token, user)) {
-                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                    user,
-                    null,
-                    user.getAuthorities()
-                );
-                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(auth);
-            }
+        if (claims.isAccess() && claims.subject() != null && tokenVersions.isCurrent(claims)
+            && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken auth = principalFromClaims ? fromClaims(claims) : fromUserStore(claims);
+            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(auth);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private UsernamePasswordAuthenticationToken fromClaims(JwtClaims claims) {
+        List<GrantedAuthority> authorities = claims.roles().stream()
+            .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+            .toList();
+        return new UsernamePasswordAuthenticationToken(claims.subject(), null, authorities);
+    }
+
+    private UsernamePasswordAuthenticationToken fromUserStore(JwtClaims claims) {
+        UserDetails user = userDetailsService.loadUserByUsername(claims.subject());
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.taskmanager.security;
+
+import java.time.Instant;
+import java.util.List;
+
+public record JwtClaims(String subject, String type, List<String> roles, long version, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isAccess() {
+        return "access".equals(type);
+    }
+
+    public boolean isRefresh() {
+        return "refresh".equals(type);
+    }
+}
@@ -1,37 +1,64 @@
 package com.example.taskmanager.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
     private final SecretKey secretKey;
+    private final JwtParser parser;
+    private final Cache<String, JwtClaims> verified;
     private final long accessExpirationMinutes;
     private final long refreshExpirationMinutes;
+    private final MeterRegistry registry;
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
 
     public JwtService(
         @Value("${app.jwt.secret}") String secret,
         @Value("${app.jwt.access-expiration-minutes}") long accessExpirationMinutes,
-        @Value("${app.jwt.refresh-expiration-minutes}") long refreshExpirationMinutes
+        @Value("${app.jwt.refresh-expiration-minutes}") long refreshExpirationMinutes,
+        @Value("${app.jwt.cache-size:10000}") long cacheSize,
+        MeterRegistry registry
     ) {
         this.secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(encodeIfNeeded(secret)));
+        this.parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        this.verified = cacheSize > 0 ? Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfter(new UntilTokenExpires())
+            .build() : null;
         this.accessExpirationMinutes = accessExpirationMinutes;
         this.refreshExpirationMinutes = refreshExpirationMinutes;
+        this.registry = registry;
+        this.cachedTimer = verifyTimer(registry, "cached");
+        this.verifiedTimer = verifyTimer(registry, "verified");
+        this.rejectedTimer = verifyTimer(registry, "rejected");
     }
 
-    public String generateAccessToken(UserDetails user) {
+    public String generateAccessToken(UserDetails user, long version) {
         Instant now = Instant.now();
         List<String> roles = user.getAuthorities().stream()
             .map(auth -> auth.getAuthority())
@@ -40,6 +67,7 @@ public class JwtService {
             .setSubject(user.getUsername())
             .claim("type", "access")
             .claim("roles", roles)
+            .claim("ver", version)
             .setIssuedAt(Date.from(now))
             .setExpiration(Date.from(now.plusSeconds(accessExpirationMinutes * 60)))
             .signWith(secretKey, SignatureAlgorithm.HS256)
@@ -50,6 +78,7 @@ public class JwtService {
         Instant now = Instant.now();
         return Jwts.builder()
             .setSubject(user.getUsername())
+            .setId(UUID.randomUUID().toString())
             .claim("type", "refresh")
             .setIssuedAt(Date.from(now))
             .setExpiration(Date.from(now.plusSeconds(refreshExpirationMinutes * 60)))
@@ -57,33 +86,47 @@ public class JwtService {
             .compact();
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(secretKey)
-            .build()
-            .parseClaimsJws(token)
-            .getBody()
-            .getSubject();
-    }
-
-    public boolean isAccessTokenValid(String token, UserDetails user) {
-        String username = extractUsername(token);
-        return username.equals(user.getUsername()) && hasType(token, "access");
+    // Verified tokens are cached by SHA-256 until they expire, so a client reusing its token is verified once.
+    public JwtClaims parseToken(String token) {
+        Timer.Sample sample = Timer.start(registry);
+        Timer outcome = rejectedTimer;
+        try {
+            String key = verified == null ? null : TokenHash.of(token);
+            JwtClaims claims = key == null ? null : verified.getIfPresent(key);
+            if (claims != null && claims.expiresAt().isAfter(Instant.now())) {
+                outcome = cachedTimer;
+                return claims;
+            }
+            claims = parse(token);
+            if (key != null) {
+                verified.put(key, claims);
+            }
+            outcome = verifiedTimer;
+            return claims;
+        } finally {
+            sample.stop(outcome);
+        }
     }
 
-    public boolean isRefreshTokenValid(String token, UserDetails user) {
-        String username = extractUsername(token);
-        return username.equals(user.getUsername()) && hasType(token, "refresh");
+    private JwtClaims parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Object roles = claims.get("roles");
+        Number version = claims.get("ver", Number.class);
+        return new JwtClaims(
+            claims.getSubject(),
+            claims.get("type", String.class),
+            roles instanceof List<?> list ? list.stream().map(String::valueOf).toList() : List.of(),
+            version == null ? 0 : version.longValue(),
+            claims.getIssuedAt().toInstant(),
+            claims.getExpiration().toInstant()
+        );
     }
 
-    private boolean hasType(String token, String type) {
-        Claims claims = Jwts.parserBuilder()
-            .setSigningKey(secretKey)
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
-        Object claim = claims.get("type");
-        return type.equals(claim);
+    private static Timer verifyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("jwt.verify")
+            .description("Access and refresh token checks")
+            .tag("outcome", outcome)
+            .register(registry);
     }
 
     private String encodeIfNeeded(String secret) {
@@ -94,6 +137,24 @@ public class JwtService {
         if (trimmed.matches("^[A-Za-z0-9+/=]+$") && trimmed.length() % 4 == 0) {
             return trimmed;
         }
-        return java.util.Base64.getEncoder().encodeToString(trimmed.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(trimmed.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class UntilTokenExpires implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            return Math.max(Duration.between(Instant.now(), claims.expiresAt()).toNanos(), 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
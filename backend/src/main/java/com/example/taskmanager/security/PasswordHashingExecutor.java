@@ -0,0 +1,72 @@
+package com.example.taskmanager.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs BCrypt work on a fixed number of threads with a short queue, so a burst of logins cannot occupy every
+// request thread or every core. When the queue is full the login is rejected instead of waiting.
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejections;
+
+    public PasswordHashingExecutor(
+        @Value("${app.rate-limit.password-hashing.threads:0}") int threads,
+        @Value("${app.rate-limit.password-hashing.queue:16}") int queue,
+        MeterRegistry registry
+    ) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue),
+            task -> {
+                Thread thread = new Thread(task, "password-hashing-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.rejections = Counter.builder("admission.rejected")
+            .description("Requests rejected by admission control")
+            .tag("scope", "login")
+            .tag("reason", "hashing_saturated")
+            .register(registry);
+    }
+
+    public <T> T run(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException ex) {
+            rejections.increment();
+            throw new AdmissionRejectedException("Too many concurrent logins", 1);
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
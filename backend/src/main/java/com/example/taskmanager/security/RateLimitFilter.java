@@ -0,0 +1,79 @@
+package com.example.taskmanager.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Registered ahead of the Spring Security chain (see RateLimitConfig), so rejected requests never reach
+// authentication or password hashing. Requests with a valid bearer token are limited per user, all others per IP.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+
+    private final JwtService jwtService;
+    private final TokenBuckets apiBuckets;
+    private final TokenBuckets loginBuckets;
+    private final Counter apiRejections;
+    private final Counter loginRejections;
+
+    public RateLimitFilter(JwtService jwtService, TokenBuckets apiBuckets, TokenBuckets loginBuckets, MeterRegistry registry) {
+        this.jwtService = jwtService;
+        this.apiBuckets = apiBuckets;
+        this.loginBuckets = loginBuckets;
+        this.apiRejections = rejections(registry, "api");
+        this.loginRejections = rejections(registry, "login");
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        boolean login = LOGIN_PATH.equals(request.getRequestURI());
+        long waitNanos = login
+            ? loginBuckets.tryAcquire("ip:" + request.getRemoteAddr())
+            : apiBuckets.tryAcquire(clientKey(request));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        (login ? loginRejections : apiRejections).increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"RATE_LIMITED\",\"message\":\"Too many requests, retry in " + retryAfter + "s\"}");
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                return "user:" + jwtService.parseToken(authHeader.substring(7)).subject();
+            } catch (Exception ex) {
+                // Invalid tokens are limited by IP like anonymous requests.
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static Counter rejections(MeterRegistry registry, String scope) {
+        return Counter.builder("admission.rejected")
+            .description("Requests rejected by admission control")
+            .tag("scope", scope)
+            .tag("reason", "rate_limit")
+            .register(registry);
+    }
+}
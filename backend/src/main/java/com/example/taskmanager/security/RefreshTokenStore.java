@@ -1,32 +1,14 @@
 package com.example.taskmanager.security;
 
-import org.springframework.stereotype.Component;
+public interface RefreshTokenStore {
 
-import java.util.concurrent.ConcurrentHashMap;
+    void store(String username, String refreshToken);
 
-@Component
-public class RefreshTokenStore {
+    boolean isValid(String username, String refreshToken);
 
-    private final ConcurrentHashMap<String, String> userToToken = new ConcurrentHashMap<>();
+    // Replaces presented with replacement only if presented is the user's current, unexpired token, as one atomic
+    // step: of concurrent rotations of the same token exactly one succeeds.
+    boolean rotate(String username, String presented, String replacement);
 
-    public void store(String username, String refreshToken) {
-        if (username == null || refreshToken == null) {
-            return;
-        }
-        userToToken.put(username, refreshToken);
-    }
-
-    public boolean isValid(String username, String refreshToken) {
-        if (username == null || refreshToken == null) {
-            return false;
-        }
-        String stored = userToToken.get(username);
-        return refreshToken.equals(stored);
-    }
-
-    public void revoke(String username) {
-        if (username != null) {
-            userToToken.remove(username);
-        }
-    }
+    void revoke(String username);
 }
@@ -0,0 +1,55 @@
+package com.example.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+// One bucket per key. Updates are guarded by a fixed set of lock stripes rather than one lock per key or a global lock.
+// Idle buckets are dropped once they would have refilled completely, so forgetting them changes nothing.
+public class TokenBuckets {
+
+    private static final int STRIPES = 64;
+
+    private final Object[] locks = new Object[STRIPES];
+    private final Cache<String, Bucket> buckets;
+    private final double capacity;
+    private final double tokensPerNano;
+
+    public TokenBuckets(double capacity, double refillPerSecond, long maxKeys) {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(Duration.ofNanos((long) Math.ceil(capacity / tokensPerNano)))
+            .build();
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanoseconds until one becomes available.
+    long tryAcquire(String key) {
+        Bucket bucket = buckets.get(key, k -> new Bucket(capacity, System.nanoTime()));
+        synchronized (locks[Math.floorMod(key.hashCode(), STRIPES)]) {
+            long now = System.nanoTime();
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * tokensPerNano);
+            bucket.updatedAt = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        private Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Access tokens carry the user's token version; bumping it revokes every access token issued before.
+// Versions live in the token_versions table, so they survive restarts and are shared by all instances; only users
+// that have revoked have a row. Reads go through a short-lived cache, so a logout on another instance takes up to
+// app.jwt.version-cache-ttl to be seen here. A token newer than the cached version was issued after a logout on
+// another instance and forces a reload instead of being rejected.
+@Component
+public class TokenVersionStore {
+
+    private final JdbcTemplate jdbc;
+    private final Cache<String, Long> versions;
+
+    public TokenVersionStore(
+        JdbcTemplate jdbc,
+        @Value("${app.jwt.version-cache-ttl:PT5S}") Duration cacheTtl
+    ) {
+        this.jdbc = jdbc;
+        this.versions = Caffeine.newBuilder()
+            .expireAfterWrite(cacheTtl)
+            .maximumSize(100_000)
+            .build();
+    }
+
+    public long current(String username) {
+        return versions.get(username, this::load);
+    }
+
+    public boolean isCurrent(JwtClaims claims) {
+        long current = current(claims.subject());
+        if (claims.version() > current) {
+            current = load(claims.subject());
+            versions.put(claims.subject(), current);
+        }
+        return claims.version() == current;
+    }
+
+    // Same update-then-insert as the JDBC refresh token store; a concurrent first revoke loses the insert and bumps.
+    public void revokeAll(String username) {
+        if (username == null) {
+            return;
+        }
+        String bump = "UPDATE token_versions SET version = version + 1 WHERE username = ?";
+        if (jdbc.update(bump, username) == 0) {
+            try {
+                jdbc.update("INSERT INTO token_versions (username, version) VALUES (?, 1)", username);
+            } catch (DuplicateKeyException ex) {
+                jdbc.update(bump, username);
+            }
+        }
+        versions.put(username, load(username));
+    }
+
+    private long load(String username) {
+        List<Long> rows = jdbc.queryForList("SELECT version FROM token_versions WHERE username = ?", Long.class, username);
+        return rows.isEmpty() ? 0L : rows.get(0);
+    }
+}
@@ -0,0 +1,91 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class V9__Backfill_task_tags extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            long lastId = 0;
+            Map<Long, String> batch;
+            do {
+                batch = nextBatch(connection, lastId);
+                if (!batch.isEmpty()) {
+                    copyTags(connection, batch);
+                    connection.commit();
+                    lastId = batch.keySet().stream().mapToLong(Long::longValue).max().getAsLong();
+                }
+            } while (batch.size() == BATCH_SIZE);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private Map<Long, String> nextBatch(Connection connection, long lastId) throws SQLException {
+        Map<Long, String> batch = new LinkedHashMap<>();
+        try (PreparedStatement select = connection.prepareStatement(
+            "SELECT id, tags FROM tasks WHERE id > ? ORDER BY id FETCH FIRST " + BATCH_SIZE + " ROWS ONLY")) {
+            select.setLong(1, lastId);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    batch.put(rs.getLong("id"), rs.getString("tags"));
+                }
+            }
+        }
+        return batch;
+    }
+
+    private void copyTags(Connection connection, Map<Long, String> batch) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM task_tags WHERE task_id = ?");
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO task_tags (task_id, tag) VALUES (?, ?)")) {
+            for (Map.Entry<Long, String> row : batch.entrySet()) {
+                delete.setLong(1, row.getKey());
+                delete.addBatch();
+                for (String tag : parseTags(row.getValue())) {
+                    insert.setLong(1, row.getKey());
+                    insert.setString(2, tag);
+                    insert.addBatch();
+                }
+            }
+            delete.executeBatch();
+            insert.executeBatch();
+        }
+    }
+
+    // The rules tags were split by when this migration was written, kept here so later changes to Task do not alter it.
+    private static Set<String> parseTags(String tags) {
+        Set<String> parsed = new LinkedHashSet<>();
+        if (tags == null) {
+            return parsed;
+        }
+        for (String tag : tags.split(",")) {
+            String trimmed = tag.trim();
+            if (!trimmed.isEmpty()) {
+                parsed.add(trimmed.toLowerCase(Locale.ROOT));
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,20 @@
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_change_seq_id ON tasks (change_seq, id);
+
+CREATE TABLE IF NOT EXISTS task_tombstones (
+  task_id BIGINT PRIMARY KEY,
+  change_seq BIGINT NOT NULL,
+  deleted_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_change_seq_id ON task_tombstones (change_seq, task_id);
+CREATE INDEX IF NOT EXISTS idx_task_tombstones_deleted_at ON task_tombstones (deleted_at);
+
+CREATE TABLE IF NOT EXISTS task_sync_state (
+  id INTEGER PRIMARY KEY,
+  change_seq BIGINT NOT NULL,
+  purged_seq BIGINT NOT NULL
+);
+
+INSERT INTO task_sync_state (id, change_seq, purged_seq) VALUES (1, 0, 0);
@@ -0,0 +1,4 @@
+CREATE TABLE IF NOT EXISTS token_versions (
+  username VARCHAR(80) PRIMARY KEY,
+  version BIGINT NOT NULL
+);
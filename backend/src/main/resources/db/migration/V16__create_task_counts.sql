@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS task_counts (
+  dimension VARCHAR(20) NOT NULL,
+  bucket VARCHAR(80) NOT NULL,
+  tasks BIGINT NOT NULL,
+  estimate_hours BIGINT NOT NULL,
+  PRIMARY KEY (dimension, bucket)
+);
+
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'status', status, COUNT(*), COALESCE(SUM(estimate_hours), 0) FROM tasks GROUP BY status;
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'priority', priority, COUNT(*), 0 FROM tasks GROUP BY priority;
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'assignee', assignee, COUNT(*), 0 FROM tasks WHERE assignee IS NOT NULL GROUP BY assignee;
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'unassigned', '', COUNT(*), 0 FROM tasks WHERE assignee IS NULL HAVING COUNT(*) > 0;
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'archived', '', COUNT(*), 0 FROM tasks WHERE archived HAVING COUNT(*) > 0;
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'open_due', TO_CHAR(due_date, 'YYYY-MM-DD'), COUNT(*), 0 FROM tasks
+WHERE status <> 'DONE' AND NOT archived AND due_date IS NOT NULL
+GROUP BY TO_CHAR(due_date, 'YYYY-MM-DD');
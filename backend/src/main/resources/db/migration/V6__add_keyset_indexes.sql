@@ -0,0 +1,9 @@
+CREATE INDEX IF NOT EXISTS idx_tasks_created_at_id ON tasks (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_tasks_due_date_id ON tasks (due_date DESC NULLS FIRST, id DESC);
+CREATE INDEX IF NOT EXISTS idx_tasks_priority_id ON tasks (priority DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_tasks_status_id ON tasks (status DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_tasks_title_id ON tasks (title DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_tasks_assignee_id ON tasks (assignee DESC NULLS FIRST, id DESC);
+
+DROP INDEX IF EXISTS idx_tasks_status;
+DROP INDEX IF EXISTS idx_tasks_due_date;
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS task_tags (
+  task_id BIGINT NOT NULL REFERENCES tasks (id) ON DELETE CASCADE,
+  tag VARCHAR(255) NOT NULL,
+  PRIMARY KEY (tag, task_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_task_tags_task_id ON task_tags (task_id);
@@ -1,4 +1,36 @@
-INSERT INTO tasks (title, description, status, priority, assignee, tags, estimate_hours, archived, due_date, created_at, updated_at) VALUES
-('Setup project', 'Initialize Spring Boot and React apps', 'DONE', 'MEDIUM', 'Alex', 'setup,backend', 3, false, '2026-02-01', NOW(), NOW()),
-('Implement CRUD', 'Create Task entity, repository, service, controller', 'IN_PROGRESS', 'HIGH', 'Mira', 'api,backend', 8, false, '2026-02-05', NOW(), NOW()),
-('Add security', 'JWT auth and role-based access', 'TODO', 'LOW', 'Sam', 'security,auth', 5, false, '2026-02-10', NOW(), NOW());
+-- Flyway re-runs this file whenever it changes, so every insert skips rows that are already there.
+INSERT INTO tasks (title, description, status, priority, assignee, tags, estimate_hours, archived, due_date, created_at, updated_at)
+SELECT v.title, v.description, v.status, v.priority, v.assignee, v.tags, v.estimate_hours, false, v.due_date, NOW(), NOW()
+FROM (VALUES
+  ('Setup project', 'Initialize Spring Boot and React apps', 'DONE', 'MEDIUM', 'Alex', 'setup,backend', 3, DATE '2026-02-01'),
+  ('Implement CRUD', 'Create Task entity, repository, service, controller', 'IN_PROGRESS', 'HIGH', 'Mira', 'api,backend', 8, DATE '2026-02-05'),
+  ('Add security', 'JWT auth and role-based access', 'TODO', 'LOW', 'Sam', 'security,auth', 5, DATE '2026-02-10')
+) AS v (title, description, status, priority, assignee, tags, estimate_hours, due_date)
+WHERE NOT EXISTS (SELECT 1 FROM tasks t WHERE t.title = v.title);
+
+INSERT INTO task_tags (task_id, tag)
+SELECT t.id, v.tag
+FROM tasks t
+JOIN (VALUES
+  ('Setup project', 'setup'), ('Setup project', 'backend'),
+  ('Implement CRUD', 'api'), ('Implement CRUD', 'backend'),
+  ('Add security', 'security'), ('Add security', 'auth')
+) AS v (title, tag) ON t.title = v.title
+WHERE NOT EXISTS (SELECT 1 FROM task_tags tt WHERE tt.task_id = t.id AND tt.tag = v.tag);
+
+-- The seed rows bypass the application, so the dashboard counters are recounted (see TaskStatistics.RECOUNT).
+DELETE FROM task_counts;
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'status', status, COUNT(*), COALESCE(SUM(estimate_hours), 0) FROM tasks GROUP BY status;
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'priority', priority, COUNT(*), 0 FROM tasks GROUP BY priority;
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'assignee', assignee, COUNT(*), 0 FROM tasks WHERE assignee IS NOT NULL GROUP BY assignee;
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'unassigned', '', COUNT(*), 0 FROM tasks WHERE assignee IS NULL HAVING COUNT(*) > 0;
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'archived', '', COUNT(*), 0 FROM tasks WHERE archived HAVING COUNT(*) > 0;
+INSERT INTO task_counts (dimension, bucket, tasks, estimate_hours)
+SELECT 'open_due', TO_CHAR(due_date, 'YYYY-MM-DD'), COUNT(*), 0 FROM tasks
+WHERE status <> 'DONE' AND NOT archived AND due_date IS NOT NULL
+GROUP BY TO_CHAR(due_date, 'YYYY-MM-DD');
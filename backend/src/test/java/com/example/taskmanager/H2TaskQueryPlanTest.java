@@ -0,0 +1,14 @@
+package com.example.taskmanager;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.UUID;
+
+class H2TaskQueryPlanTest extends TaskQueryPlanTest {
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:plans-" + UUID.randomUUID());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.benchmark.BenchmarkApplication;
+import com.example.taskmanager.search.InMemoryTaskSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of turning request parameters into a Hibernate query, before any SQL is run. It sits in TaskQueries' package
+// so it calls the builders TaskService uses directly.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBuildingBenchmark {
+
+    @Param({"none", "status", "all"})
+    public String filter;
+
+    private BenchmarkApplication app;
+    private TaskQueries queries;
+    private EntityManager entityManager;
+    private CriteriaBuilder cb;
+    private TaskFilter taskFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start();
+        // The text filter resolves terms against the search index, so it needs some rows to look at.
+        app.seed(10_000);
+        app.bean(InMemoryTaskSearchIndex.class).rebuild();
+        queries = app.bean(TaskQueries.class);
+        entityManager = app.bean(EntityManagerFactory.class).createEntityManager();
+        cb = entityManager.getCriteriaBuilder();
+        taskFilter = switch (filter) {
+            case "none" -> new TaskFilter(null, null, false, null, null, null, null, null);
+            case "status" -> new TaskFilter(TaskStatus.TODO, TaskPriority.HIGH, false, null, null, null, null, null);
+            default -> new TaskFilter(TaskStatus.TODO, TaskPriority.HIGH, false, "module m12",
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 6, 30), List.of("team1,sprint7"), TaskFilter.TagMatch.ALL);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        app.close();
+    }
+
+    @Benchmark
+    public Sort sort() {
+        return queries.buildSort(taskFilter, "dueDate", "asc");
+    }
+
+    @Benchmark
+    public CriteriaQuery<Task> criteria() {
+        return criteriaQuery();
+    }
+
+    // Hibernate copies and validates the criteria tree here; SQL is rendered from it on first execution.
+    @Benchmark
+    public TypedQuery<Task> query() {
+        return entityManager.createQuery(criteriaQuery()).setMaxResults(20);
+    }
+
+    private CriteriaQuery<Task> criteriaQuery() {
+        Sort sort = queries.buildSort(taskFilter, "dueDate", "asc");
+        Specification<Task> spec = queries.buildSpec(taskFilter);
+        CriteriaQuery<Task> cq = cb.createQuery(Task.class);
+        Root<Task> root = cq.from(Task.class);
+        cq.where(spec.toPredicate(root, cq, cb));
+        cq.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return cq;
+    }
+}
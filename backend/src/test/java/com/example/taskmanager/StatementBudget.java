@@ -0,0 +1,24 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.metrics.SqlProfiler;
+
+import java.util.concurrent.Callable;
+
+// Fails a test when the action runs more SQL statements on the test thread than allowed, which is how a query per
+// row (N+1) shows up. MockMvc requests run on the calling thread, so they are covered.
+final class StatementBudget {
+
+    private StatementBudget() {
+    }
+
+    static <T> T atMost(SqlProfiler profiler, int statements, Callable<T> action) throws Exception {
+        try (SqlProfiler.Scope scope = profiler.open()) {
+            T result = action.call();
+            if (scope.statements() > statements) {
+                throw new AssertionError("Expected at most " + statements + " statements but ran " + scope.statements()
+                    + ":\n  " + String.join("\n  ", scope.shapes()));
+            }
+            return result;
+        }
+    }
+}
@@ -1,18 +1,61 @@
 package com.example.taskmanager;
 
+import com.example.taskmanager.metrics.SqlProfiler;
+import com.example.taskmanager.search.InMemoryTaskSearchIndex;
+import com.example.taskmanager.search.SearchQuery;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+// The token version cache and the task cache's change_seq poll wait past the test, so statement budgets only count
+// the requests' own queries and cross-instance eviction runs when a test calls sync().
+@SpringBootTest(properties = {
+    "app.events.flush-interval=PT1H",
+    "app.jwt.version-cache-ttl=PT1H",
+    "app.cache.by-id.sync-interval=PT1H",
+    "app.metrics.scrape-password=scrape-secret"
+})
 @AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
 class TaskControllerTest {
 
     @Autowired
@@ -21,12 +64,269 @@ class TaskControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TaskEventStream eventStream;
+
+    @Autowired
+    private TaskChangeLog changeLog;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private TaskCache taskCache;
+
+    @Autowired
+    private SqlProfiler sqlProfiler;
+
+    @SpyBean
+    private UserDetailsService userDetailsService;
+
     @Test
     void getTasks_requiresAuth() throws Exception {
         mockMvc.perform(get("/api/tasks"))
             .andExpect(status().isForbidden());
     }
 
+    @Test
+    void authenticatedRequests_skipUserLookupAndHonourLogout() throws Exception {
+        String token = login("admin", "admin");
+        clearInvocations(userDetailsService);
+
+        for (int i = 0; i < 200; i++) {
+            mockMvc.perform(get("/api/tasks")
+                    .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        }
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+
+        mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + token))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + login("admin", "admin")))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void cachedReads_reflectCommittedWrites() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task task = createTask(adminToken, "Cached original", null, "cachecheck");
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/tasks/{id}", task.getId())
+                    .header("Authorization", "Bearer " + adminToken))
+                .andExpect(jsonPath("$.title").value("Cached original"));
+            mockMvc.perform(get("/api/tasks")
+                    .header("Authorization", "Bearer " + adminToken)
+                    .param("tag", "cachecheck"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+        }
+
+        task.setTitle("Cached renamed");
+        mockMvc.perform(put("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isOk());
+        createTask(adminToken, "Cached second", null, "cachecheck");
+
+        mockMvc.perform(get("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(jsonPath("$.title").value("Cached renamed"));
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "cachecheck"))
+            .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void cachedTask_isServedWithoutQueriesUntilTheChangeLogShowsAnotherInstanceChangedIt() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task task = createTask(adminToken, "Cached here", null, null);
+        mockMvc.perform(get("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(jsonPath("$.title").value("Cached here"));
+
+        // A write this instance publishes no event for, stamped with the next change_seq as another instance's would be.
+        jdbc.update("UPDATE task_sync_state SET change_seq = change_seq + 1 WHERE id = 1");
+        jdbc.update("""
+            UPDATE tasks SET title = 'Renamed elsewhere', version = version + 1,
+              change_seq = (SELECT change_seq FROM task_sync_state WHERE id = 1)
+            WHERE id = ?""", task.getId());
+        long version = jdbc.queryForObject("SELECT version FROM tasks WHERE id = ?", Long.class, task.getId());
+
+        try (SqlProfiler.Scope scope = sqlProfiler.open()) {
+            mockMvc.perform(get("/api/tasks/{id}", task.getId())
+                    .header("Authorization", "Bearer " + adminToken))
+                .andExpect(jsonPath("$.title").value("Cached here"));
+            assertEquals(List.of(), scope.shapes());
+        }
+        taskCache.sync();
+        mockMvc.perform(get("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(header().string("ETag", "\"" + version + "\""))
+            .andExpect(jsonPath("$.title").value("Renamed elsewhere"));
+    }
+
+    @Test
+    void conditionalGet_returnsNotModifiedUntilTheTaskOrListChanges() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task task = createTask(adminToken, "Etag original", null, "etagcheck");
+
+        String taskTag = mockMvc.perform(get("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "no-cache, private"))
+            .andReturn().getResponse().getHeader("ETag");
+        String listTag = mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "etagcheck"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .header("If-None-Match", taskTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        // Revalidating a list in any count mode reads only the change_seq head.
+        try (SqlProfiler.Scope scope = sqlProfiler.open()) {
+            mockMvc.perform(get("/api/tasks")
+                    .header("Authorization", "Bearer " + adminToken)
+                    .header("If-None-Match", listTag)
+                    .param("tag", "etagcheck"))
+                .andExpect(status().isNotModified());
+            assertEquals(List.of("SELECT change_seq FROM task_sync_state WHERE id = ?"), scope.shapes());
+        }
+        String uncountedTag = mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "etagcheck")
+                .param("count", "none"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(listTag, uncountedTag);
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .header("If-None-Match", uncountedTag)
+                .param("tag", "etagcheck")
+                .param("count", "none"))
+            .andExpect(status().isNotModified());
+
+        task.setTitle("Etag renamed");
+        mockMvc.perform(put("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isOk());
+
+        String newTaskTag = mockMvc.perform(get("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .header("If-None-Match", taskTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Etag renamed"))
+            .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(taskTag, newTaskTag);
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .header("If-None-Match", listTag)
+                .param("tag", "etagcheck"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].title").value("Etag renamed"));
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .header("If-None-Match", uncountedTag)
+                .param("tag", "etagcheck")
+                .param("count", "none"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void listProjections_returnOnlyTheRequestedFields() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task task = createTask(adminToken, "Projected quokka", "A long description nobody lists", "zoo");
+
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("q", "quokka")
+                .param("view", "summary"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andExpect(jsonPath("$.totalElements").value(1))
+            .andExpect(jsonPath("$.content[0].id").value(task.getId()))
+            .andExpect(jsonPath("$.content[0].title").value("Projected quokka"))
+            .andExpect(jsonPath("$.content[0].status").value("TODO"))
+            .andExpect(jsonPath("$.content[0].description").doesNotExist())
+            .andExpect(jsonPath("$.content[0].tags").doesNotExist());
+
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("q", "quokka")
+                .param("sortBy", "relevance")
+                .param("fields", "tags, title"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].id").value(task.getId()))
+            .andExpect(jsonPath("$.content[0].tags").value("zoo"))
+            .andExpect(jsonPath("$.content[0].title").value("Projected quokka"))
+            .andExpect(jsonPath("$.content[0].status").doesNotExist());
+
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("fields", "title,passwordHash"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("INVALID_FIELDS"));
+    }
+
+    @Test
+    void countModes_skipOrEstimateTheTotal() throws Exception {
+        String adminToken = login("admin", "admin");
+        for (int i = 0; i < 3; i++) {
+            createTask(adminToken, "Counted " + i, null, "countmode");
+        }
+
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "countmode")
+                .param("size", "2")
+                .param("count", "none"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andExpect(jsonPath("$.content.length()").value(2))
+            .andExpect(jsonPath("$.last").value(false))
+            .andExpect(jsonPath("$.totalElements").doesNotExist());
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "countmode")
+                .param("size", "2")
+                .param("page", "1")
+                .param("count", "none"))
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.last").value(true));
+
+        // The first estimate is a table-wide upper bound; the exact count replaces it once the background count lands.
+        long total = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < 100 && total != 3; attempt++) {
+            String response = mockMvc.perform(get("/api/tasks")
+                    .header("Authorization", "Bearer " + adminToken)
+                    .param("tag", "countmode")
+                    .param("size", "1")
+                    .param("count", "estimate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andReturn().getResponse().getContentAsString();
+            total = objectMapper.readTree(response).get("totalElements").asLong();
+            assertTrue(total >= 2, "estimate below the rows already seen: " + total);
+            Thread.sleep(50);
+        }
+        assertEquals(3, total);
+    }
+
     @Test
     void createAndGetTask_withAdminAuth() throws Exception {
         String token = login("admin", "admin");
@@ -85,6 +385,789 @@ class TaskControllerTest {
             .andExpect(status().isForbidden());
     }
 
+    @Test
+    void cursorPaging_walksFilteredTasksInSortOrder() throws Exception {
+        String adminToken = login("admin", "admin");
+        for (String title : List.of("cursor-c", "cursor-a", "cursor-e", "cursor-b", "cursor-d")) {
+            Task task = new Task();
+            task.setTitle(title);
+            task.setStatus(TaskStatus.TODO);
+            mockMvc.perform(post("/api/tasks")
+                    .header("Authorization", "Bearer " + adminToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(task)))
+                .andExpect(status().isCreated());
+        }
+
+        List<String> titles = new ArrayList<>();
+        String cursor = "";
+        do {
+            String response = mockMvc.perform(get("/api/tasks")
+                    .header("Authorization", "Bearer " + adminToken)
+                    .param("q", "cursor-")
+                    .param("sortBy", "title")
+                    .param("direction", "asc")
+                    .param("size", "2")
+                    .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+            JsonNode page = objectMapper.readTree(response);
+            page.get("content").forEach(node -> titles.add(node.get("title").asText()));
+            cursor = page.get("hasNext").asBoolean() ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        assertEquals(List.of("cursor-a", "cursor-b", "cursor-c", "cursor-d", "cursor-e"), titles);
+    }
+
+    @Test
+    void search_ranksTitleMatchesFirstAndFollowsUpdates() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task inDescription = createTask(adminToken, "Write notes", "Notes for the zephyrine rollout");
+        Task inTitle = createTask(adminToken, "Zephyrine rollout", "Checklist");
+
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("q", "zephyr*")
+                .param("sortBy", "relevance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(2))
+            .andExpect(jsonPath("$.content[0].id").value(inTitle.getId()))
+            .andExpect(jsonPath("$.content[1].id").value(inDescription.getId()));
+
+        inTitle.setTitle("Renamed rollout");
+        mockMvc.perform(put("/api/tasks/{id}", inTitle.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inTitle)))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("q", "zephyrine"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(1))
+            .andExpect(jsonPath("$.content[0].id").value(inDescription.getId()));
+    }
+
+    @Test
+    void search_matchingMoreTasksThanTheCapKeepsTheBestScoring() throws Exception {
+        String adminToken = login("admin", "admin");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(createTask(adminToken, "Numbat survey " + i, i % 2 == 0 ? "numbat" : null).getId());
+        }
+
+        try (SqlProfiler.Scope scope = sqlProfiler.open()) {
+            mockMvc.perform(get("/api/tasks")
+                    .header("Authorization", "Bearer " + adminToken)
+                    .param("q", "numbat")
+                    .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(6))
+                .andExpect(jsonPath("$.content.length()").value(2));
+            assertFalse(scope.shapes().stream().anyMatch(shape -> shape.contains(" like ")), scope.shapes().toString());
+        }
+
+        // Same tasks, an index that keeps three: the ones that also mention the word in the description, newest first.
+        InMemoryTaskSearchIndex capped = new InMemoryTaskSearchIndex(repository, jdbc, 3);
+        capped.rebuild();
+        SearchQuery numbat = SearchQuery.parse("numbat");
+        assertEquals(3, repository.count(capped.matching(numbat)));
+        Page<Task> best = capped.search((root, cq, cb) -> null, numbat, PageRequest.of(0, 2));
+        assertEquals(3, best.getTotalElements());
+        assertEquals(List.of(ids.get(4), ids.get(2)), best.map(Task::getId).getContent());
+        Page<Task> filtered = capped.search((root, cq, cb) -> cb.notEqual(root.get("id"), ids.get(4)), numbat,
+            PageRequest.of(0, 2));
+        assertEquals(2, filtered.getTotalElements());
+        assertEquals(List.of(ids.get(2), ids.get(0)), filtered.map(Task::getId).getContent());
+    }
+
+    @Test
+    void cursorPaging_rejectsCursorFromAnotherSort() throws Exception {
+        String token = login("user", "user");
+        String cursor = new TaskCursor("title", Sort.Direction.ASC, "a", 1L).encode();
+
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .param("sortBy", "dueDate")
+                .param("cursor", cursor))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("INVALID_CURSOR"));
+    }
+
+    @Test
+    void tagFilter_matchesAnyOrAllTagsAndTracksUpdates() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task both = createTask(adminToken, "Tagged both", null, "Kestrel, Osprey");
+        Task kestrel = createTask(adminToken, "Tagged kestrel", null, "kestrel,harrier");
+        createTask(adminToken, "Tagged osprey", null, "osprey");
+
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "kestrel", "osprey")
+                .param("tagMatch", "ALL"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(1))
+            .andExpect(jsonPath("$.content[0].id").value(both.getId()))
+            .andExpect(jsonPath("$.content[0].tags").value("Kestrel, Osprey"));
+
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "kestrel,osprey"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(3));
+
+        kestrel.setTags("harrier");
+        mockMvc.perform(put("/api/tasks/{id}", kestrel.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(kestrel)))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/tasks/tags")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.tag == 'osprey')].count").value(2))
+            .andExpect(jsonPath("$[?(@.tag == 'kestrel')].count").value(1))
+            .andExpect(jsonPath("$[?(@.tag == 'harrier')].count").value(1));
+    }
+
+    @Test
+    void export_streamsFilteredTasksAsCsv() throws Exception {
+        String adminToken = login("admin", "admin");
+        createTask(adminToken, "Export first", "Has, a comma", "exportable");
+        createTask(adminToken, "Export second", null, "exportable");
+        createTask(adminToken, "Not exported", null, "other");
+
+        MvcResult started = mockMvc.perform(get("/api/tasks/export")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "exportable")
+                .param("sortBy", "title")
+                .param("direction", "asc")
+                .param("format", "CSV"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String csv = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "text/csv"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        List<String> lines = csv.lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals("id,title,description,status,priority,assignee,tags,estimateHours,archived,dueDate,createdAt,updatedAt", lines.get(0));
+        assertTrue(lines.get(1).contains(",\"Export first\",\"Has, a comma\",TODO,"));
+        assertTrue(lines.get(2).contains(",\"Export second\",,TODO,"));
+    }
+
+    @Test
+    void import_writesValidRowsAndReportsRowErrors() throws Exception {
+        String adminToken = login("admin", "admin");
+        String ndjson = """
+            {"title": "Imported one", "tags": "imported"}
+            {"title": ""}
+            {"title": "Bad status", "status": "LATER"}
+            {"title": "Imported two", "priority": "HIGH", "tags": "imported"}
+            """;
+
+        MvcResult started = mockMvc.perform(post("/api/tasks/import")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String report = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : report.lines().toList()) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertEquals(3, lines.size());
+        assertEquals(3, lines.get(0).get("row").asLong());
+        assertEquals("UNREADABLE", lines.get(0).get("error").asText());
+        assertEquals(2, lines.get(1).get("row").asLong());
+        assertEquals("VALIDATION", lines.get(1).get("error").asText());
+        assertEquals(2, lines.get(2).get("imported").asLong());
+        assertEquals(2, lines.get(2).get("failed").asLong());
+        assertTrue(lines.get(2).get("done").asBoolean());
+
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "imported"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void bulk_createsUpdatesAndDeletesWithPerItemResults() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task first = new Task();
+        first.setTitle("Bulk one");
+        first.setTags("bulk");
+        Task invalid = new Task();
+        Task second = new Task();
+        second.setTitle("Bulk two");
+
+        String created = mockMvc.perform(post("/api/tasks/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(first, invalid, second))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded").value(2))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.items[0].outcome").value("CREATED"))
+            .andExpect(jsonPath("$.items[1].outcome").value("FAILED"))
+            .andExpect(jsonPath("$.items[1].error").value("VALIDATION"))
+            .andExpect(jsonPath("$.items[2].outcome").value("CREATED"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        JsonNode items = objectMapper.readTree(created).get("items");
+        long firstId = items.get(0).get("id").asLong();
+        long secondId = items.get(2).get("id").asLong();
+
+        first.setId(firstId);
+        first.setTitle("Bulk one renamed");
+        Task missing = new Task();
+        missing.setId(-1L);
+        missing.setTitle("Missing");
+        mockMvc.perform(put("/api/tasks/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(first, missing))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].outcome").value("UPDATED"))
+            .andExpect(jsonPath("$.items[1].error").value("NOT_FOUND"));
+
+        mockMvc.perform(get("/api/tasks/{id}", firstId)
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Bulk one renamed"));
+
+        mockMvc.perform(delete("/api/tasks/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(firstId, secondId, secondId))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded").value(2))
+            .andExpect(jsonPath("$.items[2].error").value("NOT_FOUND"));
+
+        mockMvc.perform(get("/api/tasks/{id}", secondId)
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void patch_mergesSuppliedFieldsAndChecksIfMatch() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task task = createTask(adminToken, "Patch original", "Keep me", "patchcheck");
+
+        String etag = mockMvc.perform(patch("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .header("If-Match", "\"0\"")
+                .contentType("application/merge-patch+json")
+                .content("{\"title\":\"Patch renamed\",\"tags\":null}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"1\""))
+            .andExpect(jsonPath("$.title").value("Patch renamed"))
+            .andExpect(jsonPath("$.description").value("Keep me"))
+            .andExpect(jsonPath("$.tags").doesNotExist())
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(patch("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .header("If-Match", "\"0\"")
+                .contentType("application/merge-patch+json")
+                .content("{\"title\":\"Lost update\"}"))
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.error").value("PRECONDITION_FAILED"));
+        mockMvc.perform(patch("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType("application/merge-patch+json")
+                .content("{\"status\":null,\"createdAt\":\"2020-01-01T00:00:00\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("createdAt: cannot be patched; status: must not be null"));
+
+        try (SqlProfiler.Scope scope = sqlProfiler.open()) {
+            mockMvc.perform(put("/api/tasks/{id}/status", task.getId())
+                    .header("Authorization", "Bearer " + adminToken)
+                    .header("If-Match", etag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"2\""));
+            // The status change and the state it replaced come from one statement: no row lock or version read first.
+            assertEquals(1, scope.shapes().stream()
+                .map(shape -> shape.toLowerCase(Locale.ROOT))
+                .filter(shape -> shape.contains("from tasks") || shape.contains("update tasks set status"))
+                .count(), scope.shapes().toString());
+        }
+        mockMvc.perform(put("/api/tasks/{id}/status", task.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"TODO\"}"))
+            .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(jsonPath("$.status").value("DONE"))
+            .andExpect(jsonPath("$.title").value("Patch renamed"))
+            .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    void bulkChange_appliesOneSetBasedUpdateToIdsOrFilter() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task first = createTask(adminToken, "Sweep one", null, "sweep");
+        Task second = createTask(adminToken, "Sweep two", null, "sweep");
+        createTask(adminToken, "Sweep three", null, "sweep");
+
+        mockMvc.perform(patch("/api/tasks/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + first.getId() + "," + second.getId() + ",-1],"
+                    + "\"set\":{\"status\":\"DONE\",\"assignee\":null}}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated").value(2));
+        mockMvc.perform(get("/api/tasks/{id}", first.getId())
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(jsonPath("$.status").value("DONE"))
+            .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(patch("/api/tasks/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\":{\"status\":\"DONE\",\"tag\":[\"sweep\"]},\"set\":{\"archived\":true}}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated").value(2));
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "sweep"))
+            .andExpect(jsonPath("$.totalElements").value(1))
+            .andExpect(jsonPath("$.content[0].title").value("Sweep three"));
+
+        mockMvc.perform(patch("/api/tasks/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + first.getId() + "],\"set\":{\"title\":\"Nope\",\"priority\":\"URGENT\"}}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("INVALID_PATCH"));
+    }
+
+    @Test
+    void eventStream_sendsCoalescedChangesAndResyncsStaleClients() throws Exception {
+        String adminToken = login("admin", "admin");
+        MvcResult stream = mockMvc.perform(get("/api/tasks/events")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        awaitEvent(stream, ":connected");
+
+        Task kept = createTask(adminToken, "Feed kept", null);
+        mockMvc.perform(put("/api/tasks/{id}/status", kept.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"DONE\"}"))
+            .andExpect(status().isNoContent());
+        Task dropped = createTask(adminToken, "Feed dropped", null);
+        mockMvc.perform(delete("/api/tasks/{id}", dropped.getId())
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isNoContent());
+
+        String changes = awaitEvent(stream, "event:changes");
+        assertEquals("[{\"type\":\"CREATED\",\"id\":" + kept.getId() + ",\"version\":1}]", changes);
+
+        String lastEventId = stream.getResponse().getContentAsString().lines()
+            .filter(line -> line.startsWith("id:"))
+            .reduce((first, second) -> second)
+            .orElseThrow()
+            .substring(3);
+        MvcResult resumed = mockMvc.perform(get("/api/tasks/events")
+                .header("Authorization", "Bearer " + adminToken)
+                .header("Last-Event-ID", lastEventId))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        awaitEvent(resumed, ":connected");
+        Task later = createTask(adminToken, "Feed later", null);
+        assertTrue(awaitEvent(resumed, "event:changes").contains("\"id\":" + later.getId() + ","));
+        assertFalse(resumed.getResponse().getContentAsString().contains("event:resync"));
+
+        // The same position issued by an earlier process or another instance.
+        String position = lastEventId.substring(lastEventId.indexOf(':') + 1);
+        for (String foreign : List.of(position, "restarted:" + position, "999999999")) {
+            MvcResult stale = mockMvc.perform(get("/api/tasks/events")
+                    .header("Authorization", "Bearer " + adminToken)
+                    .header("Last-Event-ID", foreign))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            awaitEvent(stale, "event:resync");
+        }
+    }
+
+    @Test
+    void deltaSync_returnsChangedTasksAndTombstonesSinceTheCursor() throws Exception {
+        String adminToken = login("admin", "admin");
+        JsonNode page = syncChanges(adminToken, null);
+        while (page.get("hasMore").asBoolean()) {
+            page = syncChanges(adminToken, page.get("cursor").asText());
+        }
+        String cursor = page.get("cursor").asText();
+
+        Task removed = createTask(adminToken, "Synced then removed", null);
+        Task kept = createTask(adminToken, "Synced and kept", null);
+        mockMvc.perform(put("/api/tasks/{id}/status", kept.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"DONE\"}"))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/tasks/{id}", removed.getId())
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isNoContent());
+
+        JsonNode delta = syncChanges(adminToken, cursor);
+        assertEquals(1, delta.get("tasks").size());
+        assertEquals(kept.getId(), delta.get("tasks").get(0).get("id").asLong());
+        assertEquals("DONE", delta.get("tasks").get(0).get("status").asText());
+        assertEquals(1, delta.get("deleted").size());
+        assertEquals(removed.getId(), delta.get("deleted").get(0).asLong());
+        String caughtUp = delta.get("cursor").asText();
+        JsonNode nothing = syncChanges(adminToken, caughtUp);
+        assertEquals(0, nothing.get("tasks").size());
+        assertEquals(caughtUp, nothing.get("cursor").asText());
+
+        jdbc.update("UPDATE task_tombstones SET deleted_at = ? WHERE task_id = ?",
+            OffsetDateTime.now().minusDays(30), removed.getId());
+        assertTrue(changeLog.compact() >= 1);
+        mockMvc.perform(get("/api/tasks/changes")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("since", cursor))
+            .andExpect(status().isGone())
+            .andExpect(jsonPath("$.error").value("RESYNC_REQUIRED"));
+        syncChanges(adminToken, caughtUp);
+    }
+
+    @Test
+    void statementBudget_failsRequestsThatQueryPerRow() throws Exception {
+        String adminToken = login("admin", "admin");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(createTask(adminToken, "Budget " + i, null, "budget").getId());
+        }
+
+        // A page is the change_seq head, its count and its rows, and a board one windowed query, however many rows
+        // they hold.
+        StatementBudget.atMost(sqlProfiler, 3, () -> mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "budget")))
+            .andExpect(jsonPath("$.content.length()").value(5));
+        StatementBudget.atMost(sqlProfiler, 1, () -> mockMvc.perform(get("/api/tasks/board")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "budget")))
+            .andExpect(jsonPath("$[0].total").value(5));
+
+        AssertionError perRow = assertThrows(AssertionError.class, () -> StatementBudget.atMost(sqlProfiler, 1, () ->
+            ids.stream().map(id -> jdbc.queryForObject("SELECT title FROM tasks WHERE id = " + id, String.class)).toList()));
+        assertTrue(perRow.getMessage().contains("ran 5:"), perRow.getMessage());
+        assertTrue(perRow.getMessage().contains("SELECT title FROM tasks WHERE id = ?"), perRow.getMessage());
+
+        mockMvc.perform(get("/actuator/sqlprofile")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.shape == 'SELECT title FROM tasks WHERE id = ?')].count").value(5));
+    }
+
+    @Test
+    void prometheus_exportsLatencyQueryAndTokenMetrics() throws Exception {
+        String adminToken = login("admin", "admin");
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("status", "TODO")
+                .param("q", "metrics")
+                .param("sortBy", "dueDate"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus")
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus")
+                .with(httpBasic("admin", "admin")))
+            .andExpect(status().isUnauthorized());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus")
+                .with(httpBasic("prometheus", "scrape-secret")))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        assertMetric(scrape, "http_server_requests_seconds_bucket", "uri=\"/api/tasks\"", "le=\"0.05\"");
+        assertMetric(scrape, "http_server_requests_seconds_count", "uri=\"/api/auth/login\"");
+        assertMetric(scrape, "tasks_list_seconds_bucket", "filters=\"status+q\"", "sort=\"dueDate\"", "count=\"exact\"");
+        assertMetric(scrape, "jwt_verify_seconds_count", "outcome=\"verified\"");
+        double statements = scrape.lines()
+            .filter(line -> line.startsWith("http_server_db_statements_sum{") && line.contains("uri=\"/api/tasks\""))
+            .mapToDouble(line -> Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)))
+            .sum();
+        assertTrue(statements > 0, "No statements counted for /api/tasks");
+        assertMetric(scrape, "http_server_db_entity_loads_count", "uri=\"/api/tasks\"");
+        assertMetric(scrape, "hikaricp_connections_pending");
+    }
+
+    @Test
+    void board_returnsTheFirstTasksOfEachStatusWithCountsAndCursors() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task oldest = createTask(adminToken, "Board oldest", null, "boardcheck");
+        createTask(adminToken, "Board middle", null, "boardcheck");
+        Task newest = createTask(adminToken, "Board newest", null, "boardcheck");
+        Task done = createTask(adminToken, "Board done", null, "boardcheck");
+        mockMvc.perform(put("/api/tasks/{id}/status", done.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"DONE\"}"))
+            .andExpect(status().isNoContent());
+
+        String response = mockMvc.perform(get("/api/tasks/board")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "boardcheck")
+                .param("perColumn", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].status").value("TODO"))
+            .andExpect(jsonPath("$[0].total").value(3))
+            .andExpect(jsonPath("$[0].tasks.length()").value(2))
+            .andExpect(jsonPath("$[0].tasks[0].id").value(newest.getId()))
+            .andExpect(jsonPath("$[1].status").value("IN_PROGRESS"))
+            .andExpect(jsonPath("$[1].total").value(0))
+            .andExpect(jsonPath("$[1].tasks.length()").value(0))
+            .andExpect(jsonPath("$[2].total").value(1))
+            .andExpect(jsonPath("$[2].tasks[0].id").value(done.getId()))
+            .andExpect(jsonPath("$[2].nextCursor").doesNotExist())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String cursor = objectMapper.readTree(response).get(0).get("nextCursor").asText();
+        mockMvc.perform(get("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .param("tag", "boardcheck")
+                .param("status", "TODO")
+                .param("cursor", cursor)
+                .param("size", "2"))
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].id").value(oldest.getId()))
+            .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void stats_matchAFullRecountAfterWrites() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task late = new Task();
+        late.setTitle("Stats late");
+        late.setAssignee("statsuser");
+        late.setEstimateHours(7);
+        late.setDueDate(LocalDate.now().minusDays(3));
+        late = objectMapper.readValue(mockMvc.perform(post("/api/tasks")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(late)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString(), Task.class);
+        Task done = createTask(adminToken, "Stats done", null);
+        Task removed = createTask(adminToken, "Stats removed", null);
+        assertStatsMatchRecount(adminToken);
+
+        mockMvc.perform(patch("/api/tasks/{id}", done.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"assignee\":\"statsuser\",\"estimateHours\":5,\"dueDate\":\"2000-01-01\"}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(put("/api/tasks/{id}/status", done.getId())
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"DONE\"}"))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(patch("/api/tasks/bulk")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + late.getId() + "," + removed.getId() + "],"
+                    + "\"set\":{\"priority\":\"HIGH\",\"assignee\":null}}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/tasks/{id}", removed.getId())
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isNoContent());
+        assertStatsMatchRecount(adminToken);
+    }
+
+    @Test
+    void concurrentPatches_loseNoUpdates() throws Exception {
+        String adminToken = login("admin", "admin");
+        Task task = createTask(adminToken, "Counter", null);
+        int writers = 4;
+        int incrementsPerWriter = 15;
+
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < incrementsPerWriter; i++) {
+                        incrementEstimate(adminToken, task.getId());
+                    }
+                    return null;
+                }));
+            }
+            // Blind status writes through the direct UPDATE path bump the version under the writers' feet.
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    mockMvc.perform(put("/api/tasks/{id}/status", task.getId())
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"" + (i % 2 == 0 ? "IN_PROGRESS" : "TODO") + "\"}"));
+                }
+                return null;
+            }));
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        mockMvc.perform(get("/api/tasks/{id}", task.getId())
+                .header("Authorization", "Bearer " + adminToken))
+            .andExpect(jsonPath("$.estimateHours").value(writers * incrementsPerWriter));
+    }
+
+    // Read-modify-write with If-Match, retried until it applies on top of the latest version.
+    private void incrementEstimate(String token, long id) throws Exception {
+        while (true) {
+            MvcResult current = mockMvc.perform(get("/api/tasks/{id}", id)
+                    .header("Authorization", "Bearer " + token))
+                .andReturn();
+            if (current.getResponse().getStatus() == 429) {
+                Thread.sleep(50);
+                continue;
+            }
+            Task read = objectMapper.readValue(current.getResponse().getContentAsString(), Task.class);
+            int next = (read.getEstimateHours() == null ? 0 : read.getEstimateHours()) + 1;
+            int status = mockMvc.perform(patch("/api/tasks/{id}", id)
+                    .header("Authorization", "Bearer " + token)
+                    .header("If-Match", current.getResponse().getHeader("ETag"))
+                    .contentType("application/merge-patch+json")
+                    .content("{\"estimateHours\":" + next + "}"))
+                .andReturn().getResponse().getStatus();
+            if (status == 200) {
+                return;
+            }
+            assertTrue(status == 409 || status == 412 || status == 429, "unexpected status " + status);
+        }
+    }
+
+    // Returns the data line of the first event containing marker, flushing the feed until it arrives.
+    private String awaitEvent(MvcResult stream, String marker) throws Exception {
+        for (int attempt = 0; attempt < 250; attempt++) {
+            eventStream.flush();
+            String content = stream.getResponse().getContentAsString();
+            for (String event : content.substring(0, content.lastIndexOf("\n\n") + 1).split("\n\n")) {
+                if (event.contains(marker)) {
+                    return event.lines().filter(line -> line.startsWith("data:")).map(line -> line.substring(5))
+                        .findFirst().orElse("");
+                }
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No " + marker + " event in: " + stream.getResponse().getContentAsString());
+    }
+
+    private void assertMetric(String scrape, String name, String... labels) {
+        boolean found = scrape.lines()
+            .filter(line -> line.startsWith(name + "{") || line.startsWith(name + " "))
+            .anyMatch(line -> Arrays.stream(labels).allMatch(line::contains));
+        assertTrue(found, name + " with " + String.join(", ", labels) + " missing from the scrape");
+    }
+
+    // The same numbers the endpoint keeps incrementally, computed the slow way.
+    private void assertStatsMatchRecount(String token) throws Exception {
+        JsonNode stats = objectMapper.readTree(mockMvc.perform(get("/api/tasks/stats")
+                .header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        assertEquals(jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class), stats.get("total").asLong());
+        assertEquals(groupCounts("status"), nonZero(stats.get("byStatus")));
+        assertEquals(groupCounts("priority"), nonZero(stats.get("byPriority")));
+        assertEquals(groupCounts("assignee"), nonZero(stats.get("byAssignee")));
+        assertEquals(jdbc.queryForObject("SELECT COUNT(*) FROM tasks WHERE assignee IS NULL", Long.class),
+            stats.get("unassigned").asLong());
+        assertEquals(jdbc.queryForObject("SELECT COUNT(*) FROM tasks WHERE archived", Long.class),
+            stats.get("archived").asLong());
+        assertEquals(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM tasks WHERE status <> 'DONE' AND NOT archived AND due_date < CURRENT_DATE", Long.class),
+            stats.get("overdue").asLong());
+        assertEquals(jdbc.queryForObject("SELECT COALESCE(SUM(estimate_hours), 0) FROM tasks", Long.class),
+            stats.get("estimateHours").asLong());
+    }
+
+    private Map<String, Integer> nonZero(JsonNode counts) {
+        Map<String, Integer> nonZero = new HashMap<>();
+        counts.fields().forEachRemaining(entry -> {
+            if (entry.getValue().asInt() > 0) {
+                nonZero.put(entry.getKey(), entry.getValue().asInt());
+            }
+        });
+        return nonZero;
+    }
+
+    private Map<String, Integer> groupCounts(String column) {
+        Map<String, Integer> counts = new HashMap<>();
+        jdbc.query("SELECT " + column + ", COUNT(*) FROM tasks WHERE " + column + " IS NOT NULL GROUP BY " + column,
+            rs -> {
+                counts.put(rs.getString(1), rs.getInt(2));
+            });
+        return counts;
+    }
+
+    private JsonNode syncChanges(String token, String since) throws Exception {
+        String response = mockMvc.perform(get("/api/tasks/changes")
+                .header("Authorization", "Bearer " + token)
+                .param("limit", "1000")
+                .param("since", since == null ? "" : since))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private Task createTask(String token, String title, String description) throws Exception {
+        return createTask(token, title, description, null);
+    }
+
+    private Task createTask(String token, String title, String description, String tags) throws Exception {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setTags(tags);
+        task.setStatus(TaskStatus.TODO);
+        String response = mockMvc.perform(post("/api/tasks")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return objectMapper.readValue(response, Task.class);
+    }
+
     private String login(String username, String password) throws Exception {
         String body = objectMapper.writeValueAsString(new LoginPayload(username, password));
         String response = mockMvc.perform(post("/api/auth/login")
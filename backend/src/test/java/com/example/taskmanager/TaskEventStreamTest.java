@@ -0,0 +1,89 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.security.AdmissionRejectedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskEventStreamTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch stalled = new CountDownLatch(1);
+    private final CountDownLatch failed = new CountDownLatch(1);
+    private final CountDownLatch delivered = new CountDownLatch(1);
+    private volatile boolean nextNeverReads;
+
+    // One sender, two slots and a short send timeout; the emitters stand in for connections.
+    private final TaskEventStream stream = new TaskEventStream(registry, new ObjectMapper(), 16, 2, 1,
+        Duration.ofMinutes(1), Duration.ofMillis(200)) {
+        @Override
+        SseEmitter newEmitter(long timeoutMillis) {
+            return nextNeverReads ? new NeverReads() : new Reads();
+        }
+    };
+
+    @AfterEach
+    void close() {
+        stream.close();
+    }
+
+    @Test
+    void subscriberThatNeverReadsIsDroppedAndFreesTheSender() throws Exception {
+        nextNeverReads = true;
+        stream.subscribe(null);
+        assertTrue(stalled.await(5, TimeUnit.SECONDS));
+        nextNeverReads = false;
+        stream.subscribe(null);
+        assertThrows(AdmissionRejectedException.class, () -> stream.subscribe(null));
+
+        // The healthy subscriber's first send is queued behind the stalled one.
+        assertFalse(delivered.await(300, TimeUnit.MILLISECONDS));
+        stream.evictStalled();
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, registry.counter("task.events.evictions").count());
+        assertEquals(1.0, registry.get("task.events.subscribers").gauge().value());
+        stream.subscribe(null);
+    }
+
+    // A client whose socket buffer is full: the write blocks until the connection is torn down.
+    private final class NeverReads extends SseEmitter {
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            stalled.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException ex) {
+                throw new InterruptedIOException();
+            }
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failed.countDown();
+        }
+    }
+
+    private final class Reads extends SseEmitter {
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            delivered.countDown();
+        }
+    }
+}
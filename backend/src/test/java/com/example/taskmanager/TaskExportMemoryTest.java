@@ -0,0 +1,100 @@
+package com.example.taskmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Runs only with -Pmemory-test, in its own surefire execution with a small heap (see pom.xml); the table lives in an
+// H2 file under target, not on the heap, and is deleted afterwards.
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"spring.jpa.show-sql=false", "app.search.engine=like"}
+)
+@DirtiesContext
+class TaskExportMemoryTest {
+
+    private static final int ROWS = Integer.getInteger("export.rows", 2_000_000);
+    private static final int SEED_CHUNK = 250_000;
+    private static final Path DATABASE_DIR = Path.of("target", "export-memory-" + UUID.randomUUID());
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+            () -> "jdbc:h2:file:./" + DATABASE_DIR + "/db;CACHE_SIZE=16384;LAZY_QUERY_EXECUTION=1");
+    }
+
+    // The context is closed after the class (@DirtiesContext), so nothing reopens the file by the time the JVM exits.
+    @BeforeAll
+    static void deleteDatabaseOnExit() {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> FileSystemUtils.deleteRecursively(DATABASE_DIR.toFile())));
+    }
+
+    @Test
+    void export_streamsAllRowsWithinSmallHeap() throws Exception {
+        for (int from = 1; from <= ROWS; from += SEED_CHUNK) {
+            jdbc.update("""
+                INSERT INTO tasks (title, description, status, priority, tags, archived, created_at, updated_at)
+                SELECT 'Task ' || X, 'Exported task ' || X, 'TODO', 'MEDIUM', 'export', false,
+                       DATEADD('SECOND', X, TIMESTAMP '2025-01-01 00:00:00'), DATEADD('SECOND', X, TIMESTAMP '2025-01-01 00:00:00')
+                FROM SYSTEM_RANGE(?, ?)
+                """, from, Math.min(from + SEED_CHUNK - 1, ROWS));
+        }
+        String token = login();
+
+        assertEquals(ROWS, countLines(token, "NDJSON"));
+        assertEquals(ROWS + 1, countLines(token, "CSV"));
+    }
+
+    private long countLines(String token, String format) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/export?format=" + format))
+            .header("Authorization", "Bearer " + token)
+            .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            return reader.lines().filter(line -> !line.isEmpty()).count();
+        }
+    }
+
+    private String login() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of("username", "admin", "password", "admin"))))
+            .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        return objectMapper.readTree(body).get("accessToken").asText();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.taskmanager;
+
+import com.example.taskmanager.metrics.SqlProfiler;
+import com.example.taskmanager.metrics.SqlProfiler.Executed;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the list's queries for the filter and sort combinations the V14 indexes were designed for and checks their
+// EXPLAIN output. The subclasses pick the database: H2 always, Postgres in a container when Docker is available.
+@SpringBootTest(properties = "app.search.engine=like")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class TaskQueryPlanTest {
+
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private TaskService service;
+
+    @Autowired
+    private SqlProfiler sqlProfiler;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private boolean postgres;
+
+    @BeforeAll
+    void seed() {
+        postgres = jdbc.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName())
+            .equalsIgnoreCase("PostgreSQL");
+        String[] statuses = {"DONE", "TODO", "IN_PROGRESS"};
+        String[] priorities = {"MEDIUM", "LOW", "HIGH"};
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Timestamp createdAt = Timestamp.valueOf(start.plusMinutes(i));
+            rows.add(new Object[] {"Task " + i, statuses[i % 3], priorities[i / 3 % 3], "user" + i % 50,
+                i % 7 == 0, i % 3 == 0 ? null : start.toLocalDate().plusDays(i % 90), createdAt, createdAt});
+        }
+        jdbc.batchUpdate("""
+            INSERT INTO tasks (title, status, priority, assignee, archived, due_date, created_at, updated_at, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)""", rows);
+        jdbc.execute(postgres ? "ANALYZE tasks" : "ANALYZE");
+    }
+
+    @Test
+    void list_readsTheMatchingIndexInOrder() {
+        TaskFilter active = filter(null, null, false);
+        assertPagePlan("created_at", active, "createdAt");
+        assertPagePlan("priority", active, "priority");
+        assertPagePlan("status", active, "status");
+        assertPagePlan("title", active, "title");
+        assertPagePlan("status_created_at", filter(TaskStatus.TODO, null, false), "createdAt");
+        assertPagePlan("priority_created_at", filter(null, TaskPriority.HIGH, false), "createdAt");
+        assertPagePlan("status_priority_created_at", filter(TaskStatus.TODO, TaskPriority.HIGH, false), "createdAt");
+        assertPagePlan(postgres ? "archived_created_at" : "created_at", filter(null, null, true), "createdAt");
+
+        // Nullable keys are only ordered like their index on the keyset path.
+        assertCursorPlan("due_date", active, "dueDate");
+        assertCursorPlan("assignee", active, "assignee");
+        assertCursorPlan("status_created_at", filter(TaskStatus.IN_PROGRESS, null, false), "createdAt");
+    }
+
+    private void assertPagePlan(String index, TaskFilter filter, String sortBy) {
+        Executed query = record(() -> service.getPage(filter, sortBy, "desc", 0, 20, CountMode.NONE));
+        assertUsesIndex(index, query, filter + " by " + sortBy);
+    }
+
+    private void assertCursorPlan(String index, TaskFilter filter, String sortBy) {
+        Executed query = record(() -> service.getAllByCursor(filter, sortBy, "desc", null, 20));
+        assertUsesIndex(index, query, filter + " by " + sortBy + " (cursor)");
+    }
+
+    private void assertUsesIndex(String index, Executed query, String description) {
+        String plan = explain(query);
+        String message = description + "\n" + query.sql() + "\n" + plan;
+        if (postgres) {
+            assertTrue(plan.contains("idx_tasks_active_" + index) || plan.contains("idx_tasks_" + index), message);
+            assertFalse(plan.contains("Sort Key"), message);
+        } else {
+            assertTrue(plan.contains("IDX_TASKS_LIST_" + index.toUpperCase(Locale.ROOT)), message);
+            assertTrue(plan.contains("/* index sorted */"), message);
+        }
+    }
+
+    private Executed record(Runnable action) {
+        try (SqlProfiler.Scope scope = sqlProfiler.capture()) {
+            action.run();
+            return scope.executed().stream()
+                .filter(executed -> executed.sql().toLowerCase(Locale.ROOT).contains(" order by "))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No ordered query ran"));
+        }
+    }
+
+    private String explain(Executed query) {
+        return jdbc.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql())) {
+                for (Map.Entry<Integer, Object> parameter : query.parameters().entrySet()) {
+                    statement.setObject(parameter.getKey(), parameter.getValue());
+                }
+                StringJoiner plan = new StringJoiner("\n");
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.add(rows.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private static TaskFilter filter(TaskStatus status, TaskPriority priority, boolean archived) {
+        return new TaskFilter(status, priority, archived, null, null, null, null, null);
+    }
+}
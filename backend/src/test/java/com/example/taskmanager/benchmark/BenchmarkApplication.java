@@ -0,0 +1,90 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.TaskManagerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Public for the benchmarks that sit in the package of the code they measure.
+public final class BenchmarkApplication implements AutoCloseable {
+
+    private static final String SEED_SQL = """
+        INSERT INTO tasks (id, title, description, status, priority, assignee, tags, estimate_hours, archived, due_date, created_at, updated_at)
+        SELECT
+          X,
+          'Task ' || X,
+          'Generated task ' || X || ' touching module m' || MOD(X, 997) || ' in area a' || MOD(X, 89),
+          CASE MOD(X, 3) WHEN 0 THEN 'TODO' WHEN 1 THEN 'IN_PROGRESS' ELSE 'DONE' END,
+          CASE MOD(X, 5) WHEN 0 THEN 'HIGH' WHEN 1 THEN 'LOW' ELSE 'MEDIUM' END,
+          CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE 'user' || MOD(X, 50) END,
+          'team' || MOD(X, 20) || ',sprint' || MOD(X, 100),
+          MOD(X, 13),
+          MOD(X, 10) = 0,
+          CASE WHEN MOD(X, 4) = 0 THEN NULL ELSE DATEADD('DAY', MOD(X, 365), DATE '2026-01-01') END,
+          DATEADD('SECOND', X, TIMESTAMP '2025-01-01 00:00:00'),
+          DATEADD('SECOND', X, TIMESTAMP '2025-01-01 00:00:00')
+        FROM SYSTEM_RANGE(1, ?)
+        """;
+
+    private static final String SEED_TAGS_SQL = """
+        INSERT INTO task_tags (task_id, tag)
+        SELECT id, 'team' || MOD(id, 20) FROM tasks
+        UNION ALL
+        SELECT id, 'sprint' || MOD(id, 100) FROM tasks
+        """;
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    // Caching and rate limiting are off unless a benchmark turns them on, so results measure the code under test.
+    public static BenchmarkApplication start(String... properties) {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("server.port", "0");
+        settings.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        settings.put("spring.jpa.show-sql", "false");
+        settings.put("app.rate-limit.enabled", "false");
+        settings.put("app.cache.enabled", "false");
+        settings.put("logging.level.root", "WARN");
+        for (String property : properties) {
+            int eq = property.indexOf('=');
+            settings.put(property.substring(0, eq), property.substring(eq + 1));
+        }
+        String[] args = settings.entrySet().stream()
+            .map(setting -> "--" + setting.getKey() + "=" + setting.getValue())
+            .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerApplication.class)
+            .logStartupInfo(false)
+            .run(args);
+        return new BenchmarkApplication(context);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    JdbcTemplate jdbc() {
+        return bean(JdbcTemplate.class);
+    }
+
+    public void seed(int rows) {
+        jdbc().update(SEED_SQL, rows);
+        jdbc().update(SEED_TAGS_SQL);
+        jdbc().execute("ALTER SEQUENCE tasks_id_seq RESTART WITH " + (rows + 50));
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares two JMH JSON result files: BenchmarkComparison <baseline.json> <current.json> [threshold-percent].
+// A result is only called faster or slower when it moved by more than the threshold and the two error intervals do
+// not overlap; exits with 1 if anything got slower.
+public final class BenchmarkComparison {
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkComparison <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 5;
+
+        int regressions = 0;
+        System.out.printf("%-70s %22s %22s %9s  %s%n", "benchmark", "baseline", "current", "change", "verdict");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %22s %22s %9s  %s%n", entry.getKey(), "-", now, "-", "new");
+                continue;
+            }
+            double change = (now.score - before.score) / before.score * 100;
+            boolean overlap = Math.abs(now.score - before.score) <= now.error + before.error;
+            String verdict = "same";
+            if (!overlap && Math.abs(change) > threshold) {
+                // Throughput is better when it goes up; every other mode reports time, which is better down.
+                boolean better = now.throughput() == change > 0;
+                verdict = better ? "faster" : "SLOWER";
+                regressions += better ? 0 : 1;
+            }
+            System.out.printf("%-70s %22s %22s %+8.1f%%  %s%n", entry.getKey(), before, now, change, verdict);
+        }
+        baseline.keySet().stream()
+            .filter(key -> !current.containsKey(key))
+            .forEach(key -> System.out.printf("%-70s %22s %22s %9s  %s%n", key, baseline.get(key), "-", "-", "missing"));
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) slower than the baseline by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    // Keyed by the benchmark name without its package, plus its parameters.
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            String name = run.path("benchmark").asText();
+            StringBuilder key = new StringBuilder(name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1));
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            params.forEach((param, value) -> key.append(' ').append(param).append('=').append(value));
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            results.put(key.toString(), new Result(run.path("mode").asText(), metric.path("score").asDouble(),
+                Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return results;
+    }
+
+    private record Result(String mode, double score, double error, String unit) {
+
+        boolean throughput() {
+            return mode.equals("thrpt");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f +- %.3f %s", score, error, unit);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BulkBenchmark {
+
+    private static final int BATCH = 1000;
+
+    private BenchmarkApplication app;
+    private HttpClient client;
+    private ObjectMapper mapper;
+    private String baseUrl;
+    private String token;
+    private List<String> singleBodies;
+    private String bulkBody;
+    private List<String> transitionBodies;
+    private String transitionBody;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        app = BenchmarkApplication.start();
+        client = HttpClient.newHttpClient();
+        mapper = app.bean(ObjectMapper.class);
+        baseUrl = "http://localhost:" + app.port();
+        String login = send("POST", "/api/auth/login", mapper.writeValueAsString(Map.of("username", "admin", "password", "admin")));
+        token = mapper.readTree(login).get("accessToken").asText();
+
+        List<Map<String, Object>> tasks = new ArrayList<>();
+        singleBodies = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            Map<String, Object> task = Map.of(
+                "title", "Bulk task " + i,
+                "description", "Created by the bulk benchmark",
+                "priority", i % 2 == 0 ? "HIGH" : "LOW",
+                "tags", "bench,batch" + (i % 10)
+            );
+            tasks.add(task);
+            singleBodies.add(mapper.writeValueAsString(task));
+        }
+        bulkBody = mapper.writeValueAsString(tasks);
+
+        app.seed(BATCH);
+        transitionBodies = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= BATCH; id++) {
+            transitionBodies.add(mapper.writeValueAsString(Map.of("title", "Task " + id, "status", "DONE")));
+            ids.add(id);
+        }
+        transitionBody = mapper.writeValueAsString(Map.of("ids", ids, "set", Map.of("status", "DONE")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void createOneByOne() throws Exception {
+        for (String body : singleBodies) {
+            send("POST", "/api/tasks", body);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public String createBulk() throws Exception {
+        return send("POST", "/api/tasks/bulk", bulkBody);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void transitionOneByOne() throws Exception {
+        for (int i = 0; i < BATCH; i++) {
+            send("PUT", "/api/tasks/" + (i + 1), transitionBodies.get(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public String transitionSetBased() throws Exception {
+        return send("PATCH", "/api/tasks/bulk", transitionBody);
+    }
+
+    private String send(String method, String path, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(method + " " + path + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
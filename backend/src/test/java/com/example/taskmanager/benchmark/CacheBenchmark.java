@@ -0,0 +1,72 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskFilter;
+import com.example.taskmanager.TaskService;
+import com.example.taskmanager.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CacheBenchmark {
+
+    private static final TaskFilter DASHBOARD = new TaskFilter(TaskStatus.TODO, null, false, null, null, null, null, null);
+    private static final int HOT_IDS = 1000;
+
+    @Param("200000")
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean cache;
+
+    private BenchmarkApplication app;
+    private TaskService service;
+    private final AtomicLong revision = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start("app.cache.enabled=" + cache);
+        app.seed(rows);
+        service = app.bean(TaskService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Task getById() {
+        return service.getById(ThreadLocalRandom.current().nextLong(1, HOT_IDS + 1));
+    }
+
+    @Benchmark
+    public Page<Task> dashboardPage() {
+        return service.getAll(DASHBOARD, "dueDate", "asc", 0, 20);
+    }
+
+    // Reads must see the write that just committed; a stale cached value fails the run.
+    @Benchmark
+    public Task updateThenRead() {
+        long id = ThreadLocalRandom.current().nextLong(1, HOT_IDS + 1);
+        Task before = service.getById(id);
+        Task changes = new Task();
+        changes.setTitle("Revision " + revision.incrementAndGet());
+        changes.setStatus(before.getStatus());
+        service.update(id, changes);
+        Task after = service.getById(id);
+        if (!changes.getTitle().equals(after.getTitle())) {
+            throw new IllegalStateException("Stale read for task " + id + ": " + after.getTitle());
+        }
+        return after;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Reads measure what idle subscribers cost the rest of the server; creates add delivering each change to all of them.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class EventStreamBenchmark {
+
+    @Param({"0", "2000"})
+    public int subscribers;
+
+    private BenchmarkApplication app;
+    private HttpClient client;
+    private TaskService service;
+    private Long readId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        app = BenchmarkApplication.start();
+        service = app.bean(TaskService.class);
+        app.seed(1000);
+        readId = 500L;
+        ObjectMapper mapper = app.bean(ObjectMapper.class);
+        String baseUrl = "http://localhost:" + app.port();
+        client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(2)).build();
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(Map.of("username", "admin", "password", "admin"))))
+            .build();
+        String token = mapper.readTree(client.send(login, HttpResponse.BodyHandlers.ofString()).body()).get("accessToken").asText();
+        HttpRequest subscribe = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks/events"))
+            .header("Authorization", "Bearer " + token)
+            .build();
+        for (int i = 0; i < subscribers; i++) {
+            client.sendAsync(subscribe, HttpResponse.BodyHandlers.discarding());
+        }
+        Gauge connected = app.bean(MeterRegistry.class).get("task.events.subscribers").gauge();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (connected.value() < subscribers && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Task read() {
+        return service.getById(readId);
+    }
+
+    @Benchmark
+    public Task create() {
+        Task task = new Task();
+        task.setTitle("Feed benchmark");
+        return service.create(task);
+    }
+}
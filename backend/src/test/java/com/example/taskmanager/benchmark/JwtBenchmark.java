@@ -0,0 +1,67 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.security.JwtClaims;
+import com.example.taskmanager.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "YmVuY2htYXJrLXNlY3JldC1iZW5jaG1hcmstc2VjcmV0LWJlbmNobWFyaw==";
+
+    private SecretKey key;
+    private JwtService uncached;
+    private JwtService cached;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        uncached = new JwtService(SECRET, 30, 60, 0, new SimpleMeterRegistry());
+        cached = new JwtService(SECRET, 30, 60, 10_000, new SimpleMeterRegistry());
+        user = User.withUsername("user").password("n/a").roles("USER").build();
+        token = uncached.generateAccessToken(user, 0);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return uncached.generateAccessToken(user, 0);
+    }
+
+    // The filter used to build a parser and verify the token three times per request.
+    @Benchmark
+    public boolean parsedThreeTimes() {
+        String username = claims(token).getSubject();
+        return claims(token).getSubject().equals(username) && "access".equals(claims(token).get("type"));
+    }
+
+    @Benchmark
+    public JwtClaims parsedOnce() {
+        return uncached.parseToken(token);
+    }
+
+    @Benchmark
+    public JwtClaims cachedVerification() {
+        return cached.parseToken(token);
+    }
+
+    private Claims claims(String token) {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.CountMode;
+import com.example.taskmanager.CursorPage;
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskCursor;
+import com.example.taskmanager.TaskFilter;
+import com.example.taskmanager.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PaginationBenchmark {
+
+    private static final TaskFilter ACTIVE = new TaskFilter(null, null, false, null, null, null, null, null);
+    private static final int PAGE_SIZE = 20;
+
+    @Param("1000000")
+    public int rows;
+
+    @Param({"0", "1000", "40000"})
+    public int page;
+
+    private BenchmarkApplication app;
+    private TaskService service;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start();
+        app.seed(rows);
+        service = app.bean(TaskService.class);
+        cursor = page == 0 ? "" : cursorBefore(page * PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Page<Task> offset() {
+        return service.getAll(ACTIVE, "createdAt", "desc", page, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Slice<Task> offsetWithoutCount() {
+        return service.getPage(ACTIVE, "createdAt", "desc", page, PAGE_SIZE, CountMode.NONE).content();
+    }
+
+    @Benchmark
+    public Slice<Task> offsetEstimatedCount() {
+        return service.getPage(ACTIVE, "createdAt", "desc", page, PAGE_SIZE, CountMode.ESTIMATE).content();
+    }
+
+    @Benchmark
+    public CursorPage<Task> keyset() {
+        return service.getAllByCursor(ACTIVE, "createdAt", "desc", cursor, PAGE_SIZE);
+    }
+
+    private String cursorBefore(int offset) {
+        Map<String, Object> row = app.jdbc().queryForMap(
+            "SELECT id, created_at FROM tasks WHERE archived = FALSE ORDER BY created_at DESC, id DESC OFFSET ? ROWS FETCH NEXT 1 ROWS ONLY",
+            offset - 1
+        );
+        LocalDateTime createdAt = ((Timestamp) row.get("CREATED_AT")).toLocalDateTime();
+        long id = ((Number) row.get("ID")).longValue();
+        return new TaskCursor("createdAt", Sort.Direction.DESC, createdAt, id).encode();
+    }
+}
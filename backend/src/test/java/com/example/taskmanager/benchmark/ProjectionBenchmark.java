@@ -0,0 +1,78 @@
+package com.example.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 100-row list pages over HTTP, so selection, hydration and serialization are all in the sample; the payload size of
+// one page is printed at setup. Sampling mode reports the p99 alongside the mean.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProjectionBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int PAGES = 30;
+
+    @Param("200000")
+    public int rows;
+
+    @Param({"full", "summary"})
+    public String view;
+
+    private BenchmarkApplication app;
+    private HttpClient client;
+    private String baseUrl;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        app = BenchmarkApplication.start();
+        app.seed(rows);
+        // Real descriptions run to hundreds of characters; the generated ones are a single short line.
+        app.jdbc().update("UPDATE tasks SET description = description || REPEAT(' and some more detail', 20)");
+        ObjectMapper mapper = app.bean(ObjectMapper.class);
+        baseUrl = "http://localhost:" + app.port();
+        client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(2)).build();
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(Map.of("username", "admin", "password", "admin"))))
+            .build();
+        token = mapper.readTree(client.send(login, HttpResponse.BodyHandlers.ofString()).body()).get("accessToken").asText();
+        System.out.println("\npayload bytes per " + PAGE_SIZE + "-row page (" + view + "): " + fetch(0).length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public byte[] listPage() throws Exception {
+        return fetch(ThreadLocalRandom.current().nextInt(PAGES));
+    }
+
+    private byte[] fetch(int page) throws Exception {
+        String query = "assignee=user7&sortBy=createdAt&direction=desc&size=" + PAGE_SIZE + "&page=" + page
+            + ("full".equals(view) ? "" : "&view=" + view);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks?" + query))
+            .header("Authorization", "Bearer " + token)
+            .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/tasks returned " + response.statusCode());
+        }
+        return response.body();
+    }
+}
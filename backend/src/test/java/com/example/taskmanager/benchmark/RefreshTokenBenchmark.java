@@ -0,0 +1,69 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.security.RefreshTokenStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// One writer rotating tokens against three readers checking them, as logins and refreshes do. users=1 puts every
+// thread on the same key.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshTokenBenchmark {
+
+    @Param({"memory", "jdbc"})
+    public String store;
+
+    @Param({"1", "10000"})
+    public int users;
+
+    private BenchmarkApplication app;
+    private RefreshTokenStore tokens;
+    private String[] usernames;
+    private String[] issued;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start("app.refresh-tokens.store=" + store);
+        tokens = app.bean(RefreshTokenStore.class);
+        usernames = new String[users];
+        issued = new String[users];
+        for (int i = 0; i < users; i++) {
+            usernames[i] = "user" + i;
+            issued[i] = UUID.randomUUID().toString();
+            tokens.store(usernames[i], issued[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    @Group("rotation")
+    @GroupThreads(1)
+    public boolean rotate() {
+        int user = ThreadLocalRandom.current().nextInt(users);
+        String next = UUID.randomUUID().toString();
+        if (!tokens.rotate(usernames[user], issued[user], next)) {
+            return false;
+        }
+        issued[user] = next;
+        return true;
+    }
+
+    @Benchmark
+    @Group("rotation")
+    @GroupThreads(3)
+    public boolean isValid() {
+        int user = ThreadLocalRandom.current().nextInt(users);
+        return tokens.isValid(usernames[user], issued[user]);
+    }
+}
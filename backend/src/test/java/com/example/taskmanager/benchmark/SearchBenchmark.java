@@ -0,0 +1,58 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskFilter;
+import com.example.taskmanager.TaskService;
+import com.example.taskmanager.search.InMemoryTaskSearchIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchBenchmark {
+
+    @Param("1000000")
+    public int rows;
+
+    @Param({"like", "memory"})
+    public String engine;
+
+    @Param({"m42", "m42 a17", "m42*"})
+    public String query;
+
+    private BenchmarkApplication app;
+    private TaskService service;
+    private TaskFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start("app.search.engine=" + engine);
+        app.seed(rows);
+        if ("memory".equals(engine)) {
+            app.bean(InMemoryTaskSearchIndex.class).rebuild();
+        }
+        service = app.bean(TaskService.class);
+        filter = new TaskFilter(null, null, false, query, null, null, null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Page<Task> newestFirst() {
+        return service.getAll(filter, "createdAt", "desc", 0, 20);
+    }
+
+    @Benchmark
+    public Page<Task> byRelevance() {
+        return service.getAll(filter, "relevance", "desc", 0, 20);
+    }
+}
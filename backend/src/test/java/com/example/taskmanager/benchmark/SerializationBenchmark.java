@@ -0,0 +1,92 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskPriority;
+import com.example.taskmanager.TaskProjection;
+import com.example.taskmanager.TaskStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int TOTAL = 200_000;
+
+    @Param({"20", "100"})
+    public int size;
+
+    private BenchmarkApplication app;
+    private ObjectMapper mapper;
+    private Task task;
+    private Page<Task> page;
+    private Page<Map<String, Object>> summaryPage;
+
+    // The application's own mapper, so modules and features match what the controllers write.
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start();
+        mapper = app.bean(ObjectMapper.class);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            tasks.add(task(i));
+        }
+        task = tasks.get(0);
+        page = new PageImpl<>(tasks, PageRequest.of(0, size), TOTAL);
+        TaskProjection summary = TaskProjection.of(null, "summary");
+        summaryPage = page.map(summary::row);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public byte[] task() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(summaryPage);
+    }
+
+    private static Task task(long id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setDescription("Generated task " + id + " touching module m" + id % 997 + " in area a" + id % 89);
+        task.setStatus(TaskStatus.values()[(int) (id % 3)]);
+        task.setPriority(TaskPriority.values()[(int) (id % 3)]);
+        task.setAssignee(id % 7 == 0 ? null : "user" + id % 50);
+        task.setTags("team" + id % 20 + ",sprint" + id % 100);
+        task.setEstimateHours((int) (id % 13));
+        task.setArchived(false);
+        task.setDueDate(LocalDate.of(2026, 1, 1).plusDays(id % 365));
+        task.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(id));
+        task.setUpdatedAt(task.getCreatedAt());
+        task.setVersion(0L);
+        return task;
+    }
+}
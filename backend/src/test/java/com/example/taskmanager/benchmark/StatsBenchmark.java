@@ -0,0 +1,62 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.TaskStatistics;
+import com.example.taskmanager.TaskStats;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The dashboard numbers read from the task_counts summary table versus the GROUP BY queries they replace. The
+// recount takes an id bound that changes every call so H2 cannot hand back an earlier result for an unchanged table.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class StatsBenchmark {
+
+    @Param("1000000")
+    public int rows;
+
+    private BenchmarkApplication app;
+    private TaskStatistics statistics;
+    private JdbcTemplate jdbc;
+    private long bound;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start();
+        app.seed(rows);
+        statistics = app.bean(TaskStatistics.class);
+        // Seeding bypasses the write path, so the summary table is recounted once, as the seed script does.
+        statistics.rebuild();
+        jdbc = app.jdbc();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public TaskStats counters() {
+        return statistics.snapshot();
+    }
+
+    @Benchmark
+    public List<Object> recount() {
+        long minId = -(++bound % 2) - 1;
+        return List.of(
+            jdbc.queryForList("SELECT status, COUNT(*) FROM tasks WHERE id > ? GROUP BY status", minId),
+            jdbc.queryForList("SELECT priority, COUNT(*) FROM tasks WHERE id > ? GROUP BY priority", minId),
+            jdbc.queryForList("SELECT assignee, COUNT(*) FROM tasks WHERE id > ? GROUP BY assignee", minId),
+            jdbc.queryForMap("""
+                SELECT COUNT(*), SUM(CASE WHEN archived THEN 1 ELSE 0 END),
+                       SUM(CASE WHEN status <> 'DONE' AND NOT archived AND due_date < CURRENT_DATE THEN 1 ELSE 0 END),
+                       SUM(estimate_hours)
+                FROM tasks WHERE id > ?""", minId));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.SyncCursor;
+import com.example.taskmanager.TaskChangeLog;
+import com.example.taskmanager.TaskDelta;
+import com.example.taskmanager.TaskFilter;
+import com.example.taskmanager.TaskService;
+import com.example.taskmanager.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// A client that went offline right after seeding and missed a handful of edits: the delta reads only those rows
+// through the change_seq index, while a full reload walks the whole table.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SyncBenchmark {
+
+    @Param("1000000")
+    public int rows;
+
+    @Param("20")
+    public int changes;
+
+    private BenchmarkApplication app;
+    private TaskChangeLog changeLog;
+    private TaskService service;
+    private TaskFilter filter;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start();
+        app.seed(rows);
+        changeLog = app.bean(TaskChangeLog.class);
+        service = app.bean(TaskService.class);
+        filter = new TaskFilter(null, null, null, null, null, null, null, null);
+        cursor = new SyncCursor(0, rows, 0).encode();
+        for (long id = 1; id <= changes; id++) {
+            service.updateStatus(id * (rows / changes), TaskStatus.DONE, null);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public TaskDelta delta() {
+        return changeLog.changesSince(cursor, 500);
+    }
+
+    @Benchmark
+    public long fullReload() {
+        return service.forEach(filter, "createdAt", "desc", task -> { });
+    }
+}
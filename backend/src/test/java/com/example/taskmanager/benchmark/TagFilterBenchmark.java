@@ -0,0 +1,50 @@
+package com.example.taskmanager.benchmark;
+
+import com.example.taskmanager.Task;
+import com.example.taskmanager.TaskFilter;
+import com.example.taskmanager.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TagFilterBenchmark {
+
+    @Param("1000000")
+    public int rows;
+
+    @Param({"sprint42", "team3,sprint42", "team3,sprint42,sprint43"})
+    public String tags;
+
+    @Param({"ANY", "ALL"})
+    public TaskFilter.TagMatch tagMatch;
+
+    private BenchmarkApplication app;
+    private TaskService service;
+    private TaskFilter filter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApplication.start();
+        app.seed(rows);
+        service = app.bean(TaskService.class);
+        filter = new TaskFilter(null, null, false, null, null, null, List.of(tags.split(",")), tagMatch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Page<Task> newestFirst() {
+        return service.getAll(filter, "createdAt", "desc", 0, 20);
+    }
+}
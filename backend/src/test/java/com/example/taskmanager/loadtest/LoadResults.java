@@ -0,0 +1,118 @@
+package com.example.taskmanager.loadtest;
+
+import com.example.taskmanager.metrics.LatencyHistogram;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency is measured from when a request was due to start, not from when it was sent, so time spent queued behind
+// a slow server counts against it. Service time (from the send) is kept as well; the gap between the two is the
+// backlog a closed-loop tester would have hidden.
+final class LoadResults {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] PERCENTILE_NAMES = {"p50Millis", "p90Millis", "p99Millis", "p999Millis"};
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final Operation all = new Operation();
+    private final double targetRate;
+    private double seconds;
+
+    LoadResults(double targetRate) {
+        this.targetRate = targetRate;
+    }
+
+    // From the first scheduled request until the last response, including any backlog drained after the schedule.
+    void finished(long elapsedNanos) {
+        seconds = elapsedNanos / 1e9;
+    }
+
+    void record(Workload.Sample sample, long latencyNanos, long serviceNanos) {
+        operations.computeIfAbsent(sample.name(), name -> new Operation()).record(sample, latencyNanos, serviceNanos);
+        all.record(sample, latencyNanos, serviceNanos);
+    }
+
+    void print(PrintStream out) {
+        out.printf("%n%.0f s at %.0f requests/s requested, %.1f achieved%n%n", seconds, targetRate, all.count() / seconds);
+        out.printf("%-36s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+            "request (latency ms)", "count", "errors", "req/s", "p50", "p90", "p99", "p99.9", "max");
+        row(out, "all", all.latency, all);
+        row(out, "all (service time)", all.service, all);
+        new TreeMap<>(operations).forEach((name, operation) -> row(out, name, operation.latency, operation));
+    }
+
+    void write(Path file) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("seconds", seconds);
+        report.put("targetRate", targetRate);
+        report.put("achievedRate", all.count() / seconds);
+        report.put("all", summary(all.latency, all));
+        report.put("allServiceTime", summary(all.service, all));
+        List<Map<String, Object>> requests = new ArrayList<>();
+        new TreeMap<>(operations).forEach((name, operation) -> {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("name", name);
+            summary.putAll(summary(operation.latency, operation));
+            requests.add(summary);
+        });
+        report.put("requests", requests);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+
+    private void row(PrintStream out, String name, LatencyHistogram histogram, Operation operation) {
+        out.printf("%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, operation.count(), operation.errors.sum(),
+            operation.count() / seconds, millis(histogram, 0.5), millis(histogram, 0.9), millis(histogram, 0.99),
+            millis(histogram, 0.999), histogram.maxNanos() / 1e6);
+    }
+
+    private Map<String, Object> summary(LatencyHistogram histogram, Operation operation) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", operation.count());
+        summary.put("errors", operation.errors.sum());
+        Map<Integer, Long> statuses = new TreeMap<>();
+        operation.statuses.forEach((status, count) -> statuses.put(status, count.sum()));
+        summary.put("statuses", statuses);
+        summary.put("throughput", operation.count() / seconds);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            summary.put(PERCENTILE_NAMES[i], millis(histogram, PERCENTILES[i]));
+        }
+        summary.put("maxMillis", histogram.maxNanos() / 1e6);
+        return summary;
+    }
+
+    private static double millis(LatencyHistogram histogram, double percentile) {
+        return histogram.percentileMicros(percentile) / 1000.0;
+    }
+
+    private static final class Operation {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram service = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(Workload.Sample sample, long latencyNanos, long serviceNanos) {
+            latency.record(latencyNanos);
+            service.record(serviceNanos);
+            statuses.computeIfAbsent(sample.status(), status -> new LongAdder()).increment();
+            if (!sample.ok()) {
+                errors.increment();
+            }
+        }
+
+        long count() {
+            return latency.count();
+        }
+    }
+}
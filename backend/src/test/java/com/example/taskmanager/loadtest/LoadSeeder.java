@@ -0,0 +1,126 @@
+package com.example.taskmanager.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// Inserts generated tasks in JDBC batches, so the same code fills H2 and Postgres. Distributions are skewed the way a
+// real tracker is: most tasks are done, a few people own most of the work, and open tasks drift past their due date.
+final class LoadSeeder {
+
+    static final List<String> TAGS = List.of(
+        "backend", "frontend", "bug", "feature", "ops", "security", "docs", "tests", "ux", "data",
+        "api", "mobile", "infra", "billing", "search", "auth", "perf", "release", "support", "design");
+    static final List<String> WORDS = List.of(
+        "login", "export", "invoice", "dashboard", "migration", "cache", "report", "upload", "sync", "webhook",
+        "timeout", "payment", "profile", "email", "search", "filter", "onboarding", "audit", "backup", "import");
+    static final int ASSIGNEES = 500;
+    static final int COMPONENTS = 10_000;
+
+    private static final int BATCH = 5000;
+    private static final String INSERT_TASK = """
+        INSERT INTO tasks (id, title, description, status, priority, assignee, tags, estimate_hours, archived, due_date,
+                           created_at, updated_at, version)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)""";
+    private static final String INSERT_TAG = "INSERT INTO task_tags (task_id, tag) VALUES (?, ?)";
+    private static final int[] ESTIMATES = {1, 2, 3, 5, 8, 13};
+
+    private final JdbcTemplate jdbc;
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    LoadSeeder(JdbcTemplate jdbc, long seed) {
+        this.jdbc = jdbc;
+        this.random = new Random(seed);
+    }
+
+    // Tops the table up to the requested size, so a Postgres database seeded by an earlier run is reused.
+    long seed(long rows) {
+        long existing = jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class);
+        if (existing >= rows) {
+            return jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tasks", Long.class);
+        }
+        long firstId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM tasks", Long.class) + 1;
+        long lastId = firstId + rows - existing - 1;
+        long total = lastId - firstId + 1;
+        long reported = 0;
+        for (long from = firstId; from <= lastId; from += BATCH) {
+            long to = Math.min(from + BATCH - 1, lastId);
+            insert(from, to);
+            if ((to - firstId + 1) * 10 / total > reported) {
+                reported = (to - firstId + 1) * 10 / total;
+                System.out.printf("seeded %d of %d tasks%n", to - firstId + 1, total);
+            }
+        }
+        // The id sequence hands out blocks of 50.
+        jdbc.execute("ALTER SEQUENCE tasks_id_seq RESTART WITH " + (lastId + 50));
+        return lastId;
+    }
+
+    private void insert(long from, long to) {
+        List<Object[]> tasks = new ArrayList<>(BATCH);
+        List<Object[]> tags = new ArrayList<>(BATCH * 2);
+        for (long id = from; id <= to; id++) {
+            LocalDateTime createdAt = now.minusSeconds(random.nextInt(2 * 365 * 24 * 3600));
+            String status = pick(new String[] {"DONE", "TODO", "IN_PROGRESS"}, 55, 30);
+            Set<String> taskTags = tags();
+            for (String tag : taskTags) {
+                tags.add(new Object[] {id, tag});
+            }
+            Integer estimate = random.nextInt(5) == 0 ? null : ESTIMATES[random.nextInt(ESTIMATES.length)];
+            LocalDate dueDate = random.nextInt(100) < 35 ? null : createdAt.toLocalDate().plusDays(1 + random.nextInt(60));
+            tasks.add(new Object[] {
+                id,
+                word() + " " + word() + " #" + id,
+                "Reported by user" + random.nextInt(ASSIGNEES) + ": " + word() + " fails after " + word() + " in component c"
+                    + random.nextInt(COMPONENTS),
+                status,
+                pick(new String[] {"MEDIUM", "LOW", "HIGH"}, 50, 30),
+                assignee(),
+                taskTags.isEmpty() ? null : String.join(",", taskTags),
+                estimate,
+                status.equals("DONE") && random.nextInt(4) == 0,
+                dueDate == null ? null : Date.valueOf(dueDate),
+                Timestamp.valueOf(createdAt),
+                Timestamp.valueOf(createdAt.plusSeconds((long) (random.nextDouble() * createdAt.until(now, ChronoUnit.SECONDS))))
+            });
+        }
+        jdbc.batchUpdate(INSERT_TASK, tasks);
+        jdbc.batchUpdate(INSERT_TAG, tags);
+    }
+
+    // 12% unassigned; the rest follow a power law, so the first few people own a large share of the tasks.
+    private String assignee() {
+        if (random.nextInt(100) < 12) {
+            return null;
+        }
+        return "user" + (int) (ASSIGNEES * Math.pow(random.nextDouble(), 3));
+    }
+
+    private Set<String> tags() {
+        Set<String> tags = new LinkedHashSet<>();
+        int count = random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            tags.add(TAGS.get((int) (TAGS.size() * Math.pow(random.nextDouble(), 2))));
+        }
+        return tags;
+    }
+
+    private String word() {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    private String pick(String[] values, int firstPercent, int secondPercent) {
+        int roll = random.nextInt(100);
+        return roll < firstPercent ? values[0] : roll < firstPercent + secondPercent ? values[1] : values[2];
+    }
+}
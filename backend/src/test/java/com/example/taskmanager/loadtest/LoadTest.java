@@ -0,0 +1,124 @@
+package com.example.taskmanager.loadtest;
+
+import com.example.taskmanager.TaskManagerApplication;
+import com.example.taskmanager.TaskStatistics;
+import com.example.taskmanager.search.InMemoryTaskSearchIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Starts the app on the chosen profile, tops the tasks table up to load.rows and then drives the request mix at a
+// fixed arrival rate. Request i is due at start + i / rate whether or not earlier requests have finished; a pool of
+// workers sends them, and when all of them are busy the next request starts late and its wait is counted.
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String profile = System.getProperty("load.profile", "h2");
+        long rows = Long.parseLong(System.getProperty("load.rows", "100000"));
+        double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT60S"));
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        int workers = Integer.parseInt(System.getProperty("load.workers", "64"));
+        Duration timeout = Duration.parse(System.getProperty("load.timeout", "PT30S"));
+        Map<String, Integer> mix = mix(System.getProperty("load.mix", "list=60,get=25,update=8,create=4,refresh=2,login=1"));
+        Path output = Path.of(System.getProperty("load.output", "target/load-result.json"));
+
+        // One generator is one client, so the per-client rate limit is off.
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerApplication.class)
+            .profiles(profile)
+            .logStartupInfo(false)
+            .run("--server.port=0", "--app.rate-limit.enabled=false", "--logging.level.root=WARN");
+        try {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            long started = System.nanoTime();
+            new LoadSeeder(jdbc, Long.getLong("load.seed", 42)).seed(rows);
+            if (profile.equals("postgres")) {
+                jdbc.execute("ANALYZE tasks");
+                jdbc.execute("ANALYZE task_tags");
+            }
+            // Rows inserted behind the app's back are only seen by the in-memory structures after a rebuild.
+            context.getBeanProvider(InMemoryTaskSearchIndex.class).ifAvailable(InMemoryTaskSearchIndex::rebuild);
+            context.getBean(TaskStatistics.class).rebuild();
+            long minId = jdbc.queryForObject("SELECT MIN(id) FROM tasks", Long.class);
+            long maxId = jdbc.queryForObject("SELECT MAX(id) FROM tasks", Long.class);
+            System.out.printf("%d tasks ready in %d s%n", jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class),
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+            Workload workload = new Workload(client, baseUrl, timeout, mix, minId, maxId);
+            workload.authenticate();
+
+            drive(workload, rate, warmup, workers);
+            LoadResults results = drive(workload, rate, duration, workers);
+            results.print(System.out);
+            results.write(output);
+            System.out.println("\nResults written to " + output.toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static LoadResults drive(Workload workload, double rate, Duration duration, int workers)
+        throws InterruptedException {
+        LoadResults results = new LoadResults(rate);
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long requests = duration.toNanos() / interval;
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        AtomicLong next = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "load-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            pool.execute(() -> {
+                long request;
+                while ((request = next.getAndIncrement()) < requests) {
+                    long due = start + request * interval;
+                    for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    long sent = System.nanoTime();
+                    Workload.Sample sample = workload.run(ThreadLocalRandom.current());
+                    long done = System.nanoTime();
+                    results.record(sample, done - due, done - sent);
+                }
+            });
+        }
+        pool.shutdown();
+        // An overloaded server leaves a backlog that is still drained and measured after the schedule ends.
+        if (!pool.awaitTermination(duration.toSeconds() + 600, TimeUnit.SECONDS)) {
+            pool.shutdownNow();
+        }
+        results.finished(System.nanoTime() - start);
+        return results;
+    }
+
+    private static Map<String, Integer> mix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            mix.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.taskmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// The request mix. List requests cycle through every filter and sort the list endpoint accepts and are reported per
+// combination, so one slow plan stands out. Reads favour recently created tasks.
+final class Workload {
+
+    private static final List<String> SORTS = List.of("createdAt", "dueDate", "priority", "status", "title", "assignee");
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, String> filters = new LinkedHashMap<>();
+    private final String[] kinds;
+    private final long minId;
+    private final long maxId;
+    private final Object authLock = new Object();
+    private volatile String accessToken;
+    private String refreshToken;
+
+    Workload(HttpClient client, String baseUrl, Duration timeout, Map<String, Integer> mix, long minId, long maxId) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.minId = minId;
+        this.maxId = maxId;
+        List<String> weighted = new ArrayList<>();
+        mix.forEach((kind, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(kind);
+            }
+        });
+        this.kinds = weighted.toArray(String[]::new);
+        LocalDate today = LocalDate.now();
+        filters.put("none", "");
+        filters.put("status", "status=TODO");
+        filters.put("priority", "priority=HIGH");
+        filters.put("status+priority", "status=IN_PROGRESS&priority=HIGH");
+        filters.put("archived", "archived=true");
+        filters.put("due", "dueDateFrom=" + today + "&dueDateTo=" + today.plusDays(14));
+        filters.put("tag", "tag=" + LoadSeeder.TAGS.get(0));
+        filters.put("tags-all", "tag=" + LoadSeeder.TAGS.get(0) + "&tag=" + LoadSeeder.TAGS.get(2) + "&tagMatch=ALL");
+        filters.put("q", "q=c");
+        filters.put("q-common", "q=");
+    }
+
+    void authenticate() throws IOException, InterruptedException {
+        int status = login();
+        if (status != 200) {
+            throw new IllegalStateException("Login failed with " + status);
+        }
+    }
+
+    // Returns the request's name and HTTP status, or -1 if it failed without one.
+    Sample run(ThreadLocalRandom random) {
+        String kind = kinds[random.nextInt(kinds.length)];
+        String name = kind;
+        try {
+            int status = switch (kind) {
+                case "list" -> {
+                    String filter = pick(random, List.copyOf(filters.keySet()));
+                    String sort = pick(random, SORTS);
+                    name = "list " + filter + " by " + sort;
+                    yield list(random, filter, sort);
+                }
+                case "get" -> send(authorized("/api/tasks/" + id(random)).GET());
+                case "create" -> send(authorized("/api/tasks").POST(json(task(random))));
+                case "update" -> send(authorized("/api/tasks/" + id(random)).PUT(json(task(random))));
+                case "login" -> login();
+                case "refresh" -> refresh();
+                default -> throw new IllegalArgumentException("Unknown request kind: " + kind);
+            };
+            return new Sample(name, status);
+        } catch (IOException ex) {
+            return new Sample(name, -1);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new Sample(name, -1);
+        }
+    }
+
+    private int list(ThreadLocalRandom random, String filter, String sort) throws IOException, InterruptedException {
+        String query = filters.get(filter);
+        // A component name matches a handful of tasks; a common word matches a large share of the table.
+        if (filter.equals("q")) {
+            query += random.nextInt(LoadSeeder.COMPONENTS);
+        } else if (filter.equals("q-common")) {
+            query += pick(random, LoadSeeder.WORDS);
+        }
+        // Mostly the first page, sometimes a few pages in, as people scroll.
+        int page = random.nextInt(10) < 8 ? 0 : random.nextInt(1, 6);
+        String direction = random.nextBoolean() ? "asc" : "desc";
+        String path = "/api/tasks?" + (query.isEmpty() ? "" : query + "&")
+            + "sortBy=" + sort + "&direction=" + direction + "&page=" + page + "&size=20";
+        return send(authorized(path).GET());
+    }
+
+    // Logins and refreshes rotate the user's single refresh token, so they take turns; otherwise concurrent refreshes
+    // would present tokens that were just replaced and fail.
+    private int login() throws IOException, InterruptedException {
+        synchronized (authLock) {
+            HttpResponse<String> response = client.send(request("/api/auth/login")
+                .POST(json(Map.of("username", "admin", "password", "admin"))).build(), HttpResponse.BodyHandlers.ofString());
+            remember(response);
+            return response.statusCode();
+        }
+    }
+
+    private int refresh() throws IOException, InterruptedException {
+        synchronized (authLock) {
+            HttpResponse<String> response = client.send(request("/api/auth/refresh")
+                .POST(json(Map.of("refreshToken", refreshToken))).build(), HttpResponse.BodyHandlers.ofString());
+            remember(response);
+            return response.statusCode();
+        }
+    }
+
+    private void remember(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() == 200) {
+            JsonNode tokens = mapper.readTree(response.body());
+            accessToken = tokens.get("accessToken").asText();
+            refreshToken = tokens.get("refreshToken").asText();
+        }
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return request(path).header("Authorization", "Bearer " + accessToken);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(timeout)
+            .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body));
+    }
+
+    // Eight reads in ten go to the newest tenth of the tasks.
+    private long id(ThreadLocalRandom random) {
+        long span = maxId - minId + 1;
+        return random.nextInt(10) < 8
+            ? maxId - random.nextLong(Math.max(span / 10, 1))
+            : minId + random.nextLong(span);
+    }
+
+    private Map<String, Object> task(ThreadLocalRandom random) {
+        Map<String, Object> task = new LinkedHashMap<>();
+        task.put("title", pick(random, LoadSeeder.WORDS) + " " + pick(random, LoadSeeder.WORDS));
+        task.put("description", "Load test task");
+        task.put("status", pick(random, List.of("TODO", "IN_PROGRESS", "DONE")));
+        task.put("priority", pick(random, List.of("LOW", "MEDIUM", "HIGH")));
+        task.put("assignee", "user" + random.nextInt(LoadSeeder.ASSIGNEES));
+        task.put("tags", pick(random, LoadSeeder.TAGS));
+        task.put("dueDate", LocalDate.now().plusDays(random.nextInt(60)).toString());
+        return task;
+    }
+
+    private static <T> T pick(ThreadLocalRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    record Sample(String name, int status) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.taskmanager.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlShapesTest {
+
+    @Test
+    void collapsesInListsOfAnyLength() {
+        String ids = String.join(", ", Collections.nCopies(50_000, "?"));
+        assertEquals("select id from tasks where id in (?...) and status = ?",
+            SqlShapes.of("select id\n  from tasks where id in (" + ids + ") and status = 'TODO'"));
+        assertEquals(SqlShapes.of("select id from tasks where id IN (?)"),
+            SqlShapes.of("select id from tasks where id in (" + ids + ")"));
+    }
+
+    @Test
+    void replacesLongStringLiteralsWithoutRecursing() {
+        String text = "it''s ".repeat(50_000);
+        assertEquals("update tasks set description = ? where id = ?",
+            SqlShapes.of("update tasks set description = '" + text + "' where id = 42"));
+    }
+}
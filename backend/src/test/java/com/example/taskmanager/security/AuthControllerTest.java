@@ -0,0 +1,183 @@
+package com.example.taskmanager.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "app.refresh-tokens.store=jdbc",
+    "app.rate-limit.login.capacity=3",
+    "app.rate-limit.login.refill-per-second=0.001",
+    "app.rate-limit.api.capacity=5",
+    "app.rate-limit.api.refill-per-second=0.001"
+})
+@AutoConfigureMockMvc
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private JdbcRefreshTokenStore store;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void refresh_rotatesTokenStoredAsHash() throws Exception {
+        JsonNode tokens = read(perform("/api/auth/login", Map.of("username", "user", "password", "user")).andExpect(status().isOk()));
+        String refreshToken = tokens.get("refreshToken").asText();
+
+        String storedHash = jdbc.queryForObject("SELECT token_hash FROM refresh_tokens WHERE username = 'user'", String.class);
+        assertEquals(TokenHash.of(refreshToken), storedHash);
+
+        JsonNode rotated = read(perform("/api/auth/refresh", Map.of("refreshToken", refreshToken)).andExpect(status().isOk()));
+        perform("/api/auth/refresh", Map.of("refreshToken", refreshToken)).andExpect(status().isUnauthorized());
+        perform("/api/auth/refresh", Map.of("refreshToken", rotated.get("refreshToken").asText())).andExpect(status().isOk());
+    }
+
+    @Test
+    void refresh_acceptsATokenReplayedConcurrentlyOnce() throws Exception {
+        String refreshToken = read(perform("/api/auth/login", Map.of("username", "admin", "password", "admin"), "10.0.3.100"))
+            .get("refreshToken").asText();
+
+        int clients = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try {
+            for (int i = 0; i < clients; i++) {
+                String remoteAddr = "10.0.3." + i;
+                statuses.add(pool.submit(() -> {
+                    start.await();
+                    return perform("/api/auth/refresh", Map.of("refreshToken", refreshToken), remoteAddr)
+                        .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(1, results.stream().filter(status -> status == 200).count(), results.toString());
+            assertEquals(clients - 1, results.stream().filter(status -> status == 401).count(), results.toString());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void logout_revocationOutlivesTheStoreThatMadeIt() throws Exception {
+        String revoked = read(perform("/api/auth/login", Map.of("username", "admin", "password", "admin"), "10.0.2.1"))
+            .get("accessToken").asText();
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + revoked)).andExpect(status().isOk());
+        String issuedAfter = read(perform("/api/auth/login", Map.of("username", "admin", "password", "admin"), "10.0.2.1"))
+            .get("accessToken").asText();
+
+        // A restarted or second instance over the same database.
+        TokenVersionStore other = new TokenVersionStore(jdbc, Duration.ofMinutes(5));
+        assertFalse(other.isCurrent(jwtService.parseToken(revoked)));
+        assertTrue(other.isCurrent(jwtService.parseToken(issuedAfter)));
+    }
+
+    @Test
+    void purgeExpired_deletesOnlyExpiredTokens() {
+        OffsetDateTime now = OffsetDateTime.now();
+        jdbc.update("DELETE FROM refresh_tokens");
+        for (int i = 0; i < 2500; i++) {
+            jdbc.update("INSERT INTO refresh_tokens (username, token_hash, expires_at) VALUES (?, ?, ?)",
+                "expired" + i, "x", now.minusMinutes(1));
+        }
+        jdbc.update("INSERT INTO refresh_tokens (username, token_hash, expires_at) VALUES ('live', 'x', ?)", now.plusHours(1));
+
+        assertEquals(2500, store.purgeExpired());
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM refresh_tokens", Integer.class));
+    }
+
+    @Test
+    void login_isRateLimitedPerIp() throws Exception {
+        Map<String, String> credentials = Map.of("username", "user", "password", "user");
+        for (int i = 0; i < 3; i++) {
+            perform("/api/auth/login", credentials, "10.0.0.9").andExpect(status().isOk());
+        }
+        perform("/api/auth/login", credentials, "10.0.0.9")
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists("Retry-After"))
+            .andExpect(jsonPath("$.error").value("RATE_LIMITED"));
+        perform("/api/auth/login", credentials, "10.0.0.10").andExpect(status().isOk());
+    }
+
+    @Test
+    void api_isRateLimitedPerUser() throws Exception {
+        String userToken = read(perform("/api/auth/login", Map.of("username", "user", "password", "user"), "10.0.1.1"))
+            .get("accessToken").asText();
+        String adminToken = read(perform("/api/auth/login", Map.of("username", "admin", "password", "admin"), "10.0.1.2"))
+            .get("accessToken").asText();
+        double rejectedBefore = meterRegistry.get("admission.rejected").tag("scope", "api").counter().count();
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/tasks").header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/tasks").header("Authorization", "Bearer " + userToken))
+            .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/tasks").header("Authorization", "Bearer " + adminToken))
+            .andExpect(status().isOk());
+        assertEquals(rejectedBefore + 1, meterRegistry.get("admission.rejected").tag("scope", "api").counter().count());
+    }
+
+    private ResultActions perform(String path, Map<String, String> body) throws Exception {
+        return perform(path, body, "127.0.0.1");
+    }
+
+    private ResultActions perform(String path, Map<String, String> body, String remoteAddr) throws Exception {
+        return mockMvc.perform(post(path)
+            .with(request -> {
+                request.setRemoteAddr(remoteAddr);
+                return request;
+            })
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(body)));
+    }
+
+    private JsonNode read(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
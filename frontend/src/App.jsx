@@ -1,4 +1,4 @@
-import React, { useEffect, useState } from "react";
+import React, { useEffect, useRef, useState } from "react";
 import {
   getTasks,
   createTask,
@@ -6,7 +6,8 @@ import {
   deleteTask,
   login,
   getAccessToken,
-  clearTokens
+  clearTokens,
+  subscribeToTaskEvents
 } from "./api.js";
 
 const emptyForm = {
@@ -73,6 +74,33 @@ export default function App() {
     }
   }, [isAuthed]);
 
+  // Reload the current page when the server reports changes, at most once per second.
+  const reloadRef = useRef(load);
+  reloadRef.current = () => load(filters, pageInfo.page);
+  useEffect(() => {
+    if (!isAuthed) {
+      return undefined;
+    }
+    let timer = null;
+    const unsubscribe = subscribeToTaskEvents((name) => {
+      if (name === "unauthorized") {
+        clearTokens();
+        setIsAuthed(false);
+        return;
+      }
+      if (!timer) {
+        timer = setTimeout(() => {
+          timer = null;
+          reloadRef.current();
+        }, 1000);
+      }
+    });
+    return () => {
+      clearTimeout(timer);
+      unsubscribe();
+    };
+  }, [isAuthed]);
+
   function handleChange(e) {
     const { name, value } = e.target;
     setForm({ ...form, [name]: value });
@@ -48,6 +48,25 @@ export async function login(username, password) {
   return data;
 }
 
+// Trades the stored refresh token for a new pair; false when there is none or the server refuses it.
+export async function refreshTokens() {
+  const refreshToken = localStorage.getItem(REFRESH_KEY);
+  if (!refreshToken) {
+    return false;
+  }
+  const res = await fetch(`${authUrl}/refresh`, {
+    method: "POST",
+    headers: { "Content-Type": "application/json" },
+    body: JSON.stringify({ refreshToken })
+  });
+  if (!res.ok) {
+    return false;
+  }
+  const data = await res.json();
+  setTokens(data.accessToken, data.refreshToken);
+  return true;
+}
+
 function buildQuery(params) {
   const query = new URLSearchParams();
   Object.entries(params).forEach(([key, value]) => {
@@ -87,3 +106,81 @@ export async function updateTask(id, task) {
 export async function deleteTask(id) {
   return request(`${baseUrl}/${id}`, { method: "DELETE" });
 }
+
+// EventSource cannot send an Authorization header, so the stream is read with fetch. Reconnects resume from the
+// last event id; the server answers with "resync" if that position is no longer available. A 401 is answered with one
+// token refresh; if that fails the stream stops instead of retrying with a token that will never work again.
+export function subscribeToTaskEvents(onEvent) {
+  const controller = new AbortController();
+  let lastEventId = "";
+
+  async function connect() {
+    const headers = { Accept: "text/event-stream" };
+    const token = getAccessToken();
+    if (token) {
+      headers.Authorization = `Bearer ${token}`;
+    }
+    if (lastEventId) {
+      headers["Last-Event-ID"] = lastEventId;
+    }
+    const res = await fetch(`${baseUrl}/events`, { headers, signal: controller.signal });
+    if (res.status === 401) {
+      return "unauthorized";
+    }
+    if (!res.ok || !res.body) {
+      throw new Error(res.statusText);
+    }
+    const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = "";
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) {
+        return;
+      }
+      buffer += value;
+      let end;
+      while ((end = buffer.indexOf("\n\n")) >= 0) {
+        const block = buffer.slice(0, end);
+        buffer = buffer.slice(end + 2);
+        const event = { name: "message", data: "" };
+        block.split("\n").forEach((line) => {
+          if (line.startsWith("id:")) {
+            lastEventId = line.slice(3).trim();
+          } else if (line.startsWith("event:")) {
+            event.name = line.slice(6).trim();
+          } else if (line.startsWith("data:")) {
+            event.data += line.slice(5);
+          }
+        });
+        if (event.name !== "message") {
+          onEvent(event.name, event.data ? JSON.parse(event.data) : null);
+        }
+      }
+    }
+  }
+
+  (async () => {
+    let refreshed = false;
+    while (!controller.signal.aborted) {
+      try {
+        if ((await connect()) === "unauthorized") {
+          if (refreshed || !(await refreshTokens())) {
+            onEvent("unauthorized", null);
+            return;
+          }
+          refreshed = true;
+          continue;
+        }
+        refreshed = false;
+      } catch (err) {
+        refreshed = false;
+        if (controller.signal.aborted) {
+          return;
+        }
+      }
+      await new Promise((resolve) => setTimeout(resolve, 3000));
+    }
+  })();
+
+  return () => controller.abort();
+}